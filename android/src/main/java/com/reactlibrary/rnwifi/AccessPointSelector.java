@@ -0,0 +1,68 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.wifi.ScanResult;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Picks the access point to pin a connection to among the recent scan results, so that the platform does not
+ * have to discover one itself, which is slow and may end on a weak one when many access points share the SSID.
+ */
+class AccessPointSelector {
+
+    static final String BAND_2_4_GHZ = "2.4GHz";
+    static final String BAND_5_GHZ = "5GHz";
+    static final String BAND_6_GHZ = "6GHz";
+    /**
+     * Older results may describe access points that are gone, or a signal that changed since.
+     */
+    static final long MAX_AGE_MS = 30 * 1000;
+
+    /**
+     * @param band one of the BAND_* constants, or null for any band
+     * @return the BSSID of the strongest access point with this SSID seen in the last {@link #MAX_AGE_MS},
+     * or null if there is none
+     */
+    @Nullable
+    static String strongest(@NonNull final List<ScanResult> results, @NonNull final String ssid, @Nullable final String band) {
+        final long now = SystemClock.elapsedRealtime();
+        ScanResult strongest = null;
+        for (ScanResult result : results) {
+            // ScanResult.timestamp is in microseconds since boot
+            if (!ssid.equals(result.SSID) || result.BSSID == null || now - result.timestamp / 1000 > MAX_AGE_MS) {
+                continue;
+            }
+            if (band != null && !isInBand(result.frequency, band)) {
+                continue;
+            }
+            if (strongest == null || result.level > strongest.level) {
+                strongest = result;
+            }
+        }
+        return strongest != null ? strongest.BSSID : null;
+    }
+
+    static boolean isBand(@NonNull final String band) {
+        return BAND_2_4_GHZ.equals(band) || BAND_5_GHZ.equals(band) || BAND_6_GHZ.equals(band);
+    }
+
+    /**
+     * @param frequency in MHz
+     */
+    static boolean isInBand(final int frequency, @NonNull final String band) {
+        switch (band) {
+            case BAND_2_4_GHZ:
+                return frequency >= 2400 && frequency < 2500;
+            case BAND_5_GHZ:
+                return frequency >= 4900 && frequency < 5900;
+            case BAND_6_GHZ:
+                return frequency >= 5925 && frequency <= 7125;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.reactlibrary.rnwifi;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parses the ScanResult.capabilities strings, like `[WPA2-PSK-CCMP][RSN-SAE-CCMP][ESS][WPS]`, into typed fields.
+ *
+ * Only a handful of distinct strings show up in practice, so every string is parsed once and its result cached,
+ * up to {@link #CACHE_CAPACITY} strings.
+ */
+class CapabilitiesParser {
+
+    static final int SECURITY_OPEN = 1;
+    static final int SECURITY_WEP = 1 << 1;
+    static final int SECURITY_WPA = 1 << 2;
+    static final int SECURITY_WPA2 = 1 << 3;
+    static final int SECURITY_WPA3 = 1 << 4;
+    static final int SECURITY_OWE = 1 << 5;
+    static final int SECURITY_EAP = 1 << 6;
+    private static final String[] SECURITY_NAMES = {"open", "wep", "wpa", "wpa2", "wpa3", "owe", "eap"};
+
+    static final int CIPHER_CCMP = 1;
+    static final int CIPHER_TKIP = 1 << 1;
+    static final int CIPHER_GCMP = 1 << 2;
+    private static final String[] CIPHER_NAMES = {"ccmp", "tkip", "gcmp"};
+
+    static final int CACHE_CAPACITY = 64;
+
+    static final class Capabilities {
+        /**
+         * Bitmask of the SECURITY_* constants, several for transition networks.
+         */
+        final int security;
+        /**
+         * Bitmask of the CIPHER_* constants.
+         */
+        final int ciphers;
+        final boolean wps;
+        final boolean ess;
+        final boolean ibss;
+        final String[] securityNames;
+        final String[] cipherNames;
+
+        private Capabilities(final int security, final int ciphers, final boolean wps, final boolean ess, final boolean ibss) {
+            this.security = security;
+            this.ciphers = ciphers;
+            this.wps = wps;
+            this.ess = ess;
+            this.ibss = ibss;
+            securityNames = namesOf(security, SECURITY_NAMES);
+            cipherNames = namesOf(ciphers, CIPHER_NAMES);
+        }
+    }
+
+    private static final Map<String, Capabilities> cache = new HashMap<>();
+    private static final Capabilities NONE = new Capabilities(SECURITY_OPEN, 0, false, false, false);
+
+    @NonNull
+    static Capabilities parse(@Nullable final String capabilities) {
+        if (capabilities == null) {
+            return NONE;
+        }
+        synchronized (cache) {
+            Capabilities parsed = cache.get(capabilities);
+            if (parsed == null) {
+                if (cache.size() >= CACHE_CAPACITY) {
+                    cache.clear();
+                }
+                parsed = parseUncached(capabilities);
+                cache.put(capabilities, parsed);
+            }
+            return parsed;
+        }
+    }
+
+    /**
+     * @return the SECURITY_* constant of a security name like `wpa2`, 0 if unknown
+     */
+    static int securityFromName(@NonNull final String name) {
+        for (int i = 0; i < SECURITY_NAMES.length; i++) {
+            if (SECURITY_NAMES[i].equals(name)) {
+                return 1 << i;
+            }
+        }
+        return 0;
+    }
+
+    private static Capabilities parseUncached(final String capabilities) {
+        int security = 0;
+        int ciphers = 0;
+        boolean wps = false;
+        boolean ess = false;
+        boolean ibss = false;
+        int start = capabilities.indexOf('[');
+        while (start != -1) {
+            final int end = capabilities.indexOf(']', start);
+            if (end == -1) {
+                break;
+            }
+            final String token = capabilities.substring(start + 1, end);
+            if (token.startsWith("WPA2-") || token.startsWith("RSN-")) {
+                security |= securityOf(token, SECURITY_WPA2);
+                ciphers |= ciphersOf(token);
+            } else if (token.startsWith("WPA-")) {
+                security |= securityOf(token, SECURITY_WPA);
+                ciphers |= ciphersOf(token);
+            } else if (token.startsWith("WEP")) {
+                security |= SECURITY_WEP;
+            } else if (token.equals("WPS")) {
+                wps = true;
+            } else if (token.equals("ESS")) {
+                ess = true;
+            } else if (token.equals("IBSS")) {
+                ibss = true;
+            }
+            start = capabilities.indexOf('[', end);
+        }
+        return new Capabilities(security == 0 ? SECURITY_OPEN : security, ciphers, wps, ess, ibss);
+    }
+
+    /**
+     * Every key management of the token counts, like both PSK and SAE in `RSN-PSK+SAE-CCMP` for a WPA2/WPA3
+     * transition network.
+     *
+     * @param token a token like `RSN-PSK+FT/PSK-CCMP`
+     * @param psk   the SECURITY_* constant of PSK for the protocol of the token
+     */
+    private static int securityOf(final String token, final int psk) {
+        int security = 0;
+        final int length = token.length();
+        // Skips the protocol, the key managements and ciphers are separated by '-', '+' and '/'
+        int start = token.indexOf('-') + 1;
+        for (int end = start; end <= length; end++) {
+            if (end < length && "-+/".indexOf(token.charAt(end)) == -1) {
+                continue;
+            }
+            if (token.startsWith("PSK", start) && end - start == 3) {
+                security |= psk;
+            } else if (token.startsWith("SAE", start) && end - start == 3) {
+                security |= SECURITY_WPA3;
+            } else if (token.startsWith("OWE", start) && end - start == 3) {
+                security |= SECURITY_OWE;
+            } else if (token.startsWith("EAP", start)) {
+                // Also EAP_SUITE_B_192
+                security |= SECURITY_EAP;
+            }
+            start = end + 1;
+        }
+        return security;
+    }
+
+    private static int ciphersOf(final String token) {
+        int ciphers = 0;
+        if (token.contains("CCMP")) {
+            ciphers |= CIPHER_CCMP;
+        }
+        if (token.contains("TKIP")) {
+            ciphers |= CIPHER_TKIP;
+        }
+        if (token.contains("GCMP")) {
+            ciphers |= CIPHER_GCMP;
+        }
+        return ciphers;
+    }
+
+    private static String[] namesOf(final int bits, final String[] names) {
+        final String[] set = new String[Integer.bitCount(bits)];
+        int next = 0;
+        for (int i = 0; i < names.length; i++) {
+            if ((bits & (1 << i)) != 0) {
+                set[next++] = names[i];
+            }
+        }
+        return set;
+    }
+}
@@ -0,0 +1,148 @@
+package com.reactlibrary.rnwifi;
+
+import androidx.annotation.NonNull;
+
+import com.facebook.react.bridge.ReadableMap;
+
+import java.util.regex.Pattern;
+
+/**
+ * Options of a connection request, as passed from JS to `connectToProtectedWifiSSID`.
+ */
+class ConnectOptions {
+
+    static final long DEFAULT_TIMEOUT_MS = 10 * 1000;
+
+    /**
+     * Verify the connection with the NETWORK_STATE_CHANGED broadcast and the SSID of the connection info.
+     */
+    static final String VERIFICATION_BROADCAST = "broadcast";
+    /**
+     * Verify the connection with the callback of the requested network, as soon as it has an address.
+     */
+    static final String VERIFICATION_CALLBACK = "callback";
+
+    static final String SECURITY_OPEN = "open";
+    /**
+     * Enhanced open, encrypted without a password.
+     */
+    static final String SECURITY_OWE = "owe";
+    static final String SECURITY_WPA2 = "wpa2";
+    static final String SECURITY_WPA3 = "wpa3";
+
+    private static final Pattern MAC_ADDRESS = Pattern.compile("^([0-9A-Fa-f]{2}:){5}[0-9A-Fa-f]{2}$");
+
+    final String ssid;
+    final String password;
+    final boolean isWep;
+    long timeoutMs = DEFAULT_TIMEOUT_MS;
+    String verification = VERIFICATION_BROADCAST;
+    /**
+     * Resolve with the connection details instead of the values `connectToProtectedSSID` resolves with.
+     */
+    boolean resolveDetails = false;
+    /**
+     * What to do when another Android 10+ connection is in progress, see {@link NetworkRequestManager}.
+     */
+    String whenBusy = NetworkRequestManager.WHEN_BUSY_SUPERSEDE;
+    /**
+     * Bind the whole process to the Android 10+ network, else it is only used through its handle.
+     */
+    boolean bindProcess = true;
+    /**
+     * Access point to connect to on Android 10+, else the strongest one of the recent scans is picked.
+     */
+    String bssid = null;
+    /**
+     * Mask of the {@link #bssid} bits to match, to connect to any access point of a range.
+     */
+    String bssidMask = null;
+    /**
+     * One of the SECURITY_* constants, by default open without password and WPA2 with one.
+     */
+    String security;
+    /**
+     * One of the {@link AccessPointSelector} bands to pick the access point from, null for any band.
+     */
+    String band = null;
+
+    ConnectOptions(@NonNull final String ssid, final String password, final boolean isWep) {
+        this.ssid = ssid;
+        this.password = password;
+        this.isWep = isWep;
+        this.security = password == null || password.isEmpty() ? SECURITY_OPEN : SECURITY_WPA2;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the `ssid` is missing or an option is invalid
+     */
+    static ConnectOptions fromReadableMap(@NonNull final ReadableMap options) {
+        if (!options.hasKey("ssid") || options.isNull("ssid")) {
+            throw new IllegalArgumentException("ssid is required");
+        }
+        final ConnectOptions connectOptions = new ConnectOptions(
+                options.getString("ssid"),
+                options.hasKey("password") && !options.isNull("password") ? options.getString("password") : null,
+                options.hasKey("isWep") && options.getBoolean("isWep"));
+        connectOptions.resolveDetails = true;
+        if (options.hasKey("timeout") && !options.isNull("timeout")) {
+            connectOptions.timeoutMs = (long) options.getDouble("timeout");
+            // A timeout of 0 would fail the connection right away
+            if (connectOptions.timeoutMs <= 0) {
+                throw new IllegalArgumentException("timeout must be positive");
+            }
+        }
+        if (options.hasKey("verification") && !options.isNull("verification")) {
+            final String verification = options.getString("verification");
+            if (!VERIFICATION_BROADCAST.equals(verification) && !VERIFICATION_CALLBACK.equals(verification)) {
+                throw new IllegalArgumentException(String.format("unknown verification: %s", verification));
+            }
+            connectOptions.verification = verification;
+        }
+        if (options.hasKey("whenBusy") && !options.isNull("whenBusy")) {
+            final String whenBusy = options.getString("whenBusy");
+            if (!NetworkRequestManager.WHEN_BUSY_SUPERSEDE.equals(whenBusy) && !NetworkRequestManager.WHEN_BUSY_QUEUE.equals(whenBusy)) {
+                throw new IllegalArgumentException(String.format("unknown whenBusy: %s", whenBusy));
+            }
+            connectOptions.whenBusy = whenBusy;
+        }
+        if (options.hasKey("bindProcess") && !options.isNull("bindProcess")) {
+            connectOptions.bindProcess = options.getBoolean("bindProcess");
+        }
+        if (options.hasKey("bssid") && !options.isNull("bssid")) {
+            connectOptions.bssid = macAddress(options.getString("bssid"));
+        }
+        if (options.hasKey("bssidMask") && !options.isNull("bssidMask")) {
+            if (connectOptions.bssid == null) {
+                throw new IllegalArgumentException("bssidMask requires a bssid");
+            }
+            connectOptions.bssidMask = macAddress(options.getString("bssidMask"));
+        }
+        if (options.hasKey("security") && !options.isNull("security")) {
+            final String security = options.getString("security");
+            if (SECURITY_WPA2.equals(security) || SECURITY_WPA3.equals(security)) {
+                if (connectOptions.password == null || connectOptions.password.isEmpty()) {
+                    throw new IllegalArgumentException(String.format("%s requires a password", security));
+                }
+            } else if (!SECURITY_OPEN.equals(security) && !SECURITY_OWE.equals(security)) {
+                throw new IllegalArgumentException(String.format("unknown security: %s", security));
+            }
+            connectOptions.security = security;
+        }
+        if (options.hasKey("band") && !options.isNull("band")) {
+            final String band = options.getString("band");
+            if (!AccessPointSelector.isBand(band)) {
+                throw new IllegalArgumentException(String.format("unknown band: %s", band));
+            }
+            connectOptions.band = band;
+        }
+        return connectOptions;
+    }
+
+    private static String macAddress(final String value) {
+        if (value == null || !MAC_ADDRESS.matcher(value).matches()) {
+            throw new IllegalArgumentException(String.format("invalid MAC address: %s", value));
+        }
+        return value;
+    }
+}
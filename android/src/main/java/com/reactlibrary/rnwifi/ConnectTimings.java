@@ -0,0 +1,58 @@
+package com.reactlibrary.rnwifi;
+
+import android.os.SystemClock;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures the time spent in each phase of a connection, using the monotonic elapsed realtime clock.
+ * A phase lasts from the previous mark, or the creation of the timings, to its own mark.
+ */
+class ConnectTimings {
+
+    private final long startedAt = SystemClock.elapsedRealtime();
+    private long lastMarkAt = startedAt;
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    /**
+     * Ends the given phase now.
+     */
+    synchronized void mark(final String phase) {
+        final long now = SystemClock.elapsedRealtime();
+        phases.put(phase, now - lastMarkAt);
+        lastMarkAt = now;
+    }
+
+    /**
+     * @return the milliseconds spent in each phase, and the `total`
+     */
+    synchronized Map<String, Long> toMap() {
+        final Map<String, Long> timings = new LinkedHashMap<>(phases);
+        timings.put("total", totalMs());
+        return timings;
+    }
+
+    synchronized long totalMs() {
+        return lastMarkAt - startedAt;
+    }
+
+    /**
+     * @return the milliseconds spent in each phase, and the `total`
+     */
+    synchronized WritableMap toWritableMap() {
+        final WritableMap timings = Arguments.createMap();
+        for (Map.Entry<String, Long> phase : toMap().entrySet()) {
+            timings.putDouble(phase.getKey(), phase.getValue());
+        }
+        return timings;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s total=%d", phases, totalMs());
+    }
+}
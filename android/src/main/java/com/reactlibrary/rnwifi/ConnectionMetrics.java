@@ -0,0 +1,97 @@
+package com.reactlibrary.rnwifi;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rolling histograms of the connection phase timings, keeping the last {@link #WINDOW_SIZE} samples of every phase.
+ */
+class ConnectionMetrics {
+
+    static final int WINDOW_SIZE = 100;
+
+    private static final class Window {
+        private final long[] samples = new long[WINDOW_SIZE];
+        private int count = 0;
+        private int next = 0;
+
+        void add(final long sample) {
+            samples[next] = sample;
+            next = (next + 1) % WINDOW_SIZE;
+            count = Math.min(count + 1, WINDOW_SIZE);
+        }
+
+        WritableMap toWritableMap() {
+            final long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            final WritableMap histogram = Arguments.createMap();
+            histogram.putInt("count", count);
+            histogram.putDouble("p50", percentile(sorted, 50));
+            histogram.putDouble("p95", percentile(sorted, 95));
+            histogram.putDouble("p99", percentile(sorted, 99));
+            return histogram;
+        }
+
+        /**
+         * @return the nearest-rank percentile of the sorted samples
+         */
+        private static long percentile(final long[] sorted, final int percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            final int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+    }
+
+    private final Map<String, Window> phases = new LinkedHashMap<>();
+    private int connections = 0;
+    private int reconnectHits = 0;
+    private int reconnectMisses = 0;
+
+    synchronized void record(final Map<String, Long> timings) {
+        connections++;
+        for (Map.Entry<String, Long> phase : timings.entrySet()) {
+            Window window = phases.get(phase.getKey());
+            if (window == null) {
+                window = new Window();
+                phases.put(phase.getKey(), window);
+            }
+            window.add(phase.getValue());
+        }
+    }
+
+    /**
+     * Counts a connection request served, or not, by reusing a cached network.
+     */
+    synchronized void recordReconnect(final boolean hit) {
+        if (hit) {
+            reconnectHits++;
+        } else {
+            reconnectMisses++;
+        }
+    }
+
+    /**
+     * @return the number of recorded `connections`, the count, p50, p95 and p99 of every phase, and the hits and
+     * misses of the reconnect cache
+     */
+    synchronized WritableMap toWritableMap() {
+        final WritableMap metrics = Arguments.createMap();
+        metrics.putInt("connections", connections);
+        final WritableMap phaseMetrics = Arguments.createMap();
+        for (Map.Entry<String, Window> phase : phases.entrySet()) {
+            phaseMetrics.putMap(phase.getKey(), phase.getValue().toWritableMap());
+        }
+        metrics.putMap("phases", phaseMetrics);
+        final WritableMap reconnectCache = Arguments.createMap();
+        reconnectCache.putInt("hits", reconnectHits);
+        reconnectCache.putInt("misses", reconnectMisses);
+        metrics.putMap("reconnectCache", reconnectCache);
+        return metrics;
+    }
+}
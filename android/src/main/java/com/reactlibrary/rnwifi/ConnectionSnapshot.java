@@ -0,0 +1,62 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.DhcpInfo;
+import android.net.wifi.WifiInfo;
+import android.net.wifi.WifiManager;
+import android.os.SystemClock;
+import android.text.format.Formatter;
+
+import androidx.annotation.NonNull;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+/**
+ * The current wifi connection, read at once from a single WifiInfo and DhcpInfo.
+ */
+class ConnectionSnapshot {
+
+    final String ssid;
+    final String bssid;
+    final int rssi;
+    final int frequency;
+    final int linkSpeed;
+    final int networkId;
+    final int ipAddress;
+    final int gateway;
+    final long readAt;
+
+    private ConnectionSnapshot(final WifiInfo info, final DhcpInfo dhcpInfo) {
+        String ssid = info.getSSID();
+        // This value should be wrapped in double quotes, so we need to unwrap it.
+        if (ssid != null && ssid.startsWith("\"") && ssid.endsWith("\"")) {
+            ssid = ssid.substring(1, ssid.length() - 1);
+        }
+        this.ssid = ssid;
+        this.bssid = info.getBSSID() != null ? info.getBSSID().toUpperCase() : null;
+        this.rssi = info.getRssi();
+        this.frequency = info.getFrequency();
+        this.linkSpeed = info.getLinkSpeed();
+        this.networkId = info.getNetworkId();
+        this.ipAddress = info.getIpAddress();
+        this.gateway = dhcpInfo != null ? dhcpInfo.gateway : 0;
+        this.readAt = SystemClock.elapsedRealtime();
+    }
+
+    static ConnectionSnapshot read(@NonNull final WifiManager wifi) {
+        return new ConnectionSnapshot(wifi.getConnectionInfo(), wifi.getDhcpInfo());
+    }
+
+    WritableMap toWritableMap() {
+        final WritableMap snapshot = Arguments.createMap();
+        snapshot.putString("SSID", ssid);
+        snapshot.putString("BSSID", bssid);
+        snapshot.putInt("signalStrength", rssi);
+        snapshot.putInt("frequency", frequency);
+        snapshot.putInt("linkSpeed", linkSpeed);
+        snapshot.putInt("networkId", networkId);
+        snapshot.putString("IP", Formatter.formatIpAddress(ipAddress));
+        snapshot.putString("gateway", Formatter.formatIpAddress(gateway));
+        return snapshot;
+    }
+}
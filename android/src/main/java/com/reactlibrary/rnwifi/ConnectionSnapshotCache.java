@@ -0,0 +1,46 @@
+package com.reactlibrary.rnwifi;
+
+import android.os.SystemClock;
+
+/**
+ * Caches the {@link ConnectionSnapshot} so that the connection getters do not each make a binder call.
+ *
+ * The snapshot is invalidated by the {@link ConnectivityWatcher} when a wifi network changes, and read again
+ * after {@link #MAX_AGE_MS} at the latest, since not every signal change is reported before Android 10.
+ */
+class ConnectionSnapshotCache implements ConnectivityWatcher.Listener {
+
+    static final long MAX_AGE_MS = 1000;
+
+    private final SystemServices services;
+    private final ConnectivityWatcher connectivityWatcher;
+    private ConnectionSnapshot snapshot = null;
+
+    ConnectionSnapshotCache(final SystemServices services, final ConnectivityWatcher connectivityWatcher) {
+        this.services = services;
+        this.connectivityWatcher = connectivityWatcher;
+        connectivityWatcher.addListener(this);
+    }
+
+    /**
+     * @return the cached snapshot, read again if it was invalidated or is too old
+     */
+    ConnectionSnapshot get() {
+        connectivityWatcher.start();
+        synchronized (this) {
+            if (snapshot == null || SystemClock.elapsedRealtime() - snapshot.readAt > MAX_AGE_MS) {
+                snapshot = ConnectionSnapshot.read(services.wifi());
+            }
+            return snapshot;
+        }
+    }
+
+    synchronized void invalidate() {
+        snapshot = null;
+    }
+
+    @Override
+    public void onNetworkChanged() {
+        invalidate();
+    }
+}
@@ -0,0 +1,221 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.ConnectivityManager;
+import android.net.LinkProperties;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkRequest;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the state of the wifi connectivity in memory from a long-lived callback of the wifi networks,
+ * and sends it as a {@link RNWifiEvents#CONNECTIVITY_CHANGED} event whenever it changes.
+ *
+ * The callback is registered on first use, the state being read once at that time.
+ */
+class ConnectivityWatcher {
+
+    interface Listener {
+        /**
+         * Called when a wifi network is available, lost, or its capabilities or link properties changed.
+         */
+        void onNetworkChanged();
+    }
+
+    private final ReactApplicationContext context;
+    private final SystemServices services;
+    private final List<Listener> listeners = new ArrayList<>();
+    private final Map<Network, NetworkCapabilities> networks = new HashMap<>();
+    private boolean watching = false;
+
+    private boolean connected = false;
+    private boolean validated = false;
+    private boolean metered = false;
+    private String ssid = null;
+
+    private final ConnectivityManager.NetworkCallback networkCallback = new ConnectivityManager.NetworkCallback() {
+        @Override
+        public void onAvailable(@NonNull final Network network) {
+            synchronized (ConnectivityWatcher.this) {
+                if (!networks.containsKey(network)) {
+                    networks.put(network, null);
+                }
+            }
+            onNetworksChanged(true);
+        }
+
+        @Override
+        public void onLost(@NonNull final Network network) {
+            synchronized (ConnectivityWatcher.this) {
+                networks.remove(network);
+            }
+            onNetworksChanged(true);
+        }
+
+        @Override
+        public void onCapabilitiesChanged(@NonNull final Network network, @NonNull final NetworkCapabilities networkCapabilities) {
+            synchronized (ConnectivityWatcher.this) {
+                networks.put(network, networkCapabilities);
+            }
+            onNetworksChanged(false);
+        }
+
+        @Override
+        public void onLinkPropertiesChanged(@NonNull final Network network, @NonNull final LinkProperties linkProperties) {
+            notifyListeners();
+        }
+    };
+
+    ConnectivityWatcher(final ReactApplicationContext context, final SystemServices services) {
+        this.context = context;
+        this.services = services;
+    }
+
+    synchronized void addListener(@NonNull final Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Registers the network callback if it is not yet, reading the current state once.
+     */
+    void start() {
+        synchronized (this) {
+            if (watching) {
+                return;
+            }
+        }
+        final ConnectivityManager connectivityManager = services.connectivity();
+        if (connectivityManager == null) {
+            return;
+        }
+        // Read out of the lock, being binder calls, until the callback tells about the wifi networks
+        final NetworkCapabilities capabilities = activeWifiCapabilities(connectivityManager);
+        final String activeSsid = capabilities != null ? ConnectionSnapshot.read(services.wifi()).ssid : null;
+
+        synchronized (this) {
+            if (watching) {
+                return;
+            }
+            connected = capabilities != null;
+            validated = connected && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_VALIDATED);
+            metered = connected && !capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED);
+            ssid = activeSsid;
+            // Also the wifi networks without internet access, like the ones of IoT devices
+            final NetworkRequest request = new NetworkRequest.Builder()
+                    .addTransportType(NetworkCapabilities.TRANSPORT_WIFI)
+                    .removeCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+                    .build();
+            connectivityManager.registerNetworkCallback(request, networkCallback);
+            watching = true;
+        }
+    }
+
+    synchronized void stop() {
+        if (!watching) {
+            return;
+        }
+        final ConnectivityManager connectivityManager = services.connectivity();
+        if (connectivityManager != null) {
+            connectivityManager.unregisterNetworkCallback(networkCallback);
+        }
+        watching = false;
+        networks.clear();
+    }
+
+    boolean isConnected() {
+        start();
+        synchronized (this) {
+            return connected;
+        }
+    }
+
+    /**
+     * @return the `connected`, `SSID`, `validated` and `metered` state
+     */
+    WritableMap getState() {
+        start();
+        synchronized (this) {
+            return stateToWritableMap();
+        }
+    }
+
+    /**
+     * @return the capabilities of the active network if it is a wifi one, else null
+     */
+    @Nullable
+    private static NetworkCapabilities activeWifiCapabilities(@NonNull final ConnectivityManager connectivityManager) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            final Network network = connectivityManager.getActiveNetwork();
+            final NetworkCapabilities capabilities = network != null ? connectivityManager.getNetworkCapabilities(network) : null;
+            return capabilities != null && capabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI) ? capabilities : null;
+        }
+        // No active network before Android 6, any wifi network
+        for (Network network : connectivityManager.getAllNetworks()) {
+            final NetworkCapabilities capabilities = connectivityManager.getNetworkCapabilities(network);
+            if (capabilities != null && capabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI)) {
+                return capabilities;
+            }
+        }
+        return null;
+    }
+
+    private void onNetworksChanged(final boolean ssidChanged) {
+        notifyListeners();
+        // Only read the SSID when a network came or went, the capabilities change with every signal change
+        final String newSsid = ssidChanged ? ConnectionSnapshot.read(services.wifi()).ssid : null;
+        final WritableMap state;
+        synchronized (this) {
+            boolean newValidated = false;
+            boolean newMetered = false;
+            for (NetworkCapabilities capabilities : networks.values()) {
+                if (capabilities != null) {
+                    newValidated |= capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_VALIDATED);
+                    newMetered |= !capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED);
+                }
+            }
+            final boolean newConnected = !networks.isEmpty();
+            final String resolvedSsid = !newConnected ? null : ssidChanged ? newSsid : ssid;
+            if (newConnected == connected && newValidated == validated && newMetered == metered
+                    && (resolvedSsid == null ? ssid == null : resolvedSsid.equals(ssid))) {
+                return;
+            }
+            connected = newConnected;
+            validated = newValidated;
+            metered = newMetered;
+            ssid = resolvedSsid;
+            state = stateToWritableMap();
+        }
+        RNWifiEvents.emit(context, RNWifiEvents.CONNECTIVITY_CHANGED, state);
+    }
+
+    private void notifyListeners() {
+        final List<Listener> currentListeners;
+        synchronized (this) {
+            currentListeners = new ArrayList<>(listeners);
+        }
+        for (Listener listener : currentListeners) {
+            listener.onNetworkChanged();
+        }
+    }
+
+    private WritableMap stateToWritableMap() {
+        final WritableMap state = Arguments.createMap();
+        state.putBoolean("connected", connected);
+        state.putString("SSID", ssid);
+        state.putBoolean("validated", validated);
+        state.putBoolean("metered", metered);
+        return state;
+    }
+}
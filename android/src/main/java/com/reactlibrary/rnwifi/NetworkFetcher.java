@@ -0,0 +1,211 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.Network;
+import android.util.Base64;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends HTTP requests through a given network, without binding the whole process to it: the rest of the app
+ * keeps using the default network, which matters when the given network has no internet access.
+ *
+ * The requests run on their own bounded executor, apart from the wifi operations. The response body is buffered,
+ * up to a maximum size, and sent as text or, for binary payloads, as base64.
+ */
+class NetworkFetcher {
+
+    private static final String TAG = "RNWifi";
+    private static final int THREADS = 2;
+    private static final int QUEUE_CAPACITY = 8;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+    private static final int DEFAULT_TIMEOUT_MS = 10 * 1000;
+    private static final int DEFAULT_MAX_RESPONSE_SIZE = 1024 * 1024;
+    static final String RESPONSE_TYPE_TEXT = "text";
+    static final String RESPONSE_TYPE_BASE64 = "base64";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final class ResponseTooLargeException extends IOException {
+        ResponseTooLargeException(final int maxSize) {
+            super(String.format("The response is larger than %d bytes", maxSize));
+        }
+    }
+
+    /**
+     * A request, keeping its promise to reject it if it never runs.
+     */
+    private abstract static class FetchTask implements Runnable {
+        final Promise promise;
+
+        FetchTask(final Promise promise) {
+            this.promise = promise;
+        }
+    }
+
+    private final ThreadPoolExecutor executor;
+
+    NetworkFetcher() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(THREADS, THREADS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY), new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull final Runnable runnable) {
+                return new Thread(runnable, "RNWifi-fetch-" + threadCount.incrementAndGet());
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Resolves the promise with the `status`, `headers` and `body` of the response.
+     *
+     * @param options `url`, `method` (default GET), `headers`, `body`, `timeout` in milliseconds (default 10000),
+     *                `responseType`: `text` (default) for a UTF-8 body or `base64`, and `maxResponseSize` in bytes
+     *                (default 1 MiB), a larger response being rejected
+     * @throws IllegalArgumentException if the `url` is missing, or a GET or HEAD request has a body
+     * @throws RejectedExecutionException if too many requests are pending
+     */
+    void fetch(@NonNull final Network network, @NonNull final ReadableMap options, @NonNull final Promise promise) {
+        if (!options.hasKey("url") || options.isNull("url")) {
+            throw new IllegalArgumentException("url is required");
+        }
+        final String url = options.getString("url");
+        final String method = options.hasKey("method") && !options.isNull("method") ? options.getString("method") : "GET";
+        final String body = options.hasKey("body") && !options.isNull("body") ? options.getString("body") : null;
+        final int timeoutMs = options.hasKey("timeout") && !options.isNull("timeout") ? options.getInt("timeout") : DEFAULT_TIMEOUT_MS;
+        final String responseType = options.hasKey("responseType") && !options.isNull("responseType")
+                ? options.getString("responseType") : RESPONSE_TYPE_TEXT;
+        final int maxResponseSize = options.hasKey("maxResponseSize") && !options.isNull("maxResponseSize")
+                ? options.getInt("maxResponseSize") : DEFAULT_MAX_RESPONSE_SIZE;
+        // HttpURLConnection would silently turn them into a POST to send the body
+        if (body != null && ("GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method))) {
+            throw new IllegalArgumentException(String.format("a %s request cannot have a body", method));
+        }
+        if (!RESPONSE_TYPE_TEXT.equals(responseType) && !RESPONSE_TYPE_BASE64.equals(responseType)) {
+            throw new IllegalArgumentException(String.format("unknown responseType: %s", responseType));
+        }
+        if (maxResponseSize < 0) {
+            throw new IllegalArgumentException("maxResponseSize must not be negative");
+        }
+        final Map<String, Object> headers = options.hasKey("headers") && !options.isNull("headers")
+                ? options.getMap("headers").toHashMap() : new HashMap<String, Object>();
+
+        executor.execute(new FetchTask(promise) {
+            @Override
+            public void run() {
+                HttpURLConnection connection = null;
+                try {
+                    connection = (HttpURLConnection) network.openConnection(new URL(url));
+                    connection.setConnectTimeout(timeoutMs);
+                    connection.setReadTimeout(timeoutMs);
+                    connection.setRequestMethod(method);
+                    for (Map.Entry<String, Object> header : headers.entrySet()) {
+                        connection.setRequestProperty(header.getKey(), String.valueOf(header.getValue()));
+                    }
+                    if (body != null) {
+                        connection.setDoOutput(true);
+                        final OutputStream output = connection.getOutputStream();
+                        try {
+                            output.write(body.getBytes(UTF_8));
+                        } finally {
+                            output.close();
+                        }
+                    }
+                    final int status = connection.getResponseCode();
+                    final WritableMap response = Arguments.createMap();
+                    response.putInt("status", status);
+                    response.putMap("headers", readHeaders(connection));
+                    if (connection.getContentLength() > maxResponseSize) {
+                        throw new ResponseTooLargeException(maxResponseSize);
+                    }
+                    final byte[] bytes = readBody(status >= 400 ? connection.getErrorStream() : connection.getInputStream(), maxResponseSize);
+                    response.putString("body", RESPONSE_TYPE_BASE64.equals(responseType)
+                            ? Base64.encodeToString(bytes, Base64.NO_WRAP) : new String(bytes, UTF_8));
+                    promise.resolve(response);
+                } catch (ResponseTooLargeException e) {
+                    promise.reject("responseTooLarge", e.getMessage());
+                } catch (IOException | RuntimeException e) {
+                    Log.d(TAG, String.format("fetch of %s failed: %s", url, e));
+                    promise.reject("fetchFailed", e);
+                } finally {
+                    if (connection != null) {
+                        connection.disconnect();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Stops the executor, the requests that did not start yet being rejected as cancelled.
+     */
+    void shutdown() {
+        for (Runnable pending : executor.shutdownNow()) {
+            ((FetchTask) pending).promise.reject("cancelled", "The request was cancelled");
+        }
+    }
+
+    private static WritableMap readHeaders(final HttpURLConnection connection) {
+        final WritableMap headers = Arguments.createMap();
+        for (Map.Entry<String, List<String>> header : connection.getHeaderFields().entrySet()) {
+            // The status line has no name
+            if (header.getKey() == null) {
+                continue;
+            }
+            final StringBuilder value = new StringBuilder();
+            for (String item : header.getValue()) {
+                if (value.length() > 0) {
+                    value.append(", ");
+                }
+                value.append(item);
+            }
+            headers.putString(header.getKey().toLowerCase(), value.toString());
+        }
+        return headers;
+    }
+
+    /**
+     * @throws ResponseTooLargeException if there are more than maxSize bytes
+     */
+    private static byte[] readBody(final InputStream input, final int maxSize) throws IOException {
+        if (input == null) {
+            return new byte[0];
+        }
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                if (bytes.size() + read > maxSize) {
+                    throw new ResponseTooLargeException(maxSize);
+                }
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
+        } finally {
+            input.close();
+        }
+    }
+}
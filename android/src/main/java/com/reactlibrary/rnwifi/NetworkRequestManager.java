@@ -0,0 +1,251 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkRequest;
+import android.os.Build;
+import android.os.Handler;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Promise;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the network requests of the Android 10+ connections by handle, so that none of their callbacks leaks.
+ *
+ * A single request is in flight at a time: a new one either supersedes it, which rejects it, or is queued until
+ * it settles. A rejected request is released right away, while a connected one holds its network until it is
+ * released with its handle. A connected request may be shared, each owner getting its own handle, and is only
+ * released with the last of them.
+ */
+class NetworkRequestManager {
+
+    private static final String TAG = "RNWifi";
+
+    static final String WHEN_BUSY_SUPERSEDE = "supersede";
+    static final String WHEN_BUSY_QUEUE = "queue";
+
+    final class Request {
+        final int handle;
+        final OncePromise promise;
+        private NetworkRequest networkRequest;
+        private ConnectivityManager.NetworkCallback callback;
+        private Handler callbackHandler;
+        private Network network;
+        private boolean registered = false;
+        private int owners = 1;
+
+        private Request(final int handle, final Promise promise) {
+            this.handle = handle;
+            this.promise = new OncePromise(promise) {
+                @Override
+                protected void onSettled(final boolean resolved) {
+                    onRequestSettled(Request.this, resolved);
+                }
+            };
+        }
+
+        /**
+         * Records the network the request got, to release the process binding with the request.
+         */
+        void setNetwork(@NonNull final Network network) {
+            synchronized (NetworkRequestManager.this) {
+                this.network = network;
+            }
+        }
+    }
+
+    private final SystemServices services;
+    private final Map<Integer, Request> requests = new LinkedHashMap<>();
+    private final Deque<Request> queue = new ArrayDeque<>();
+    private Request inFlight = null;
+    private int nextHandle = 1;
+
+    NetworkRequestManager(final SystemServices services) {
+        this.services = services;
+    }
+
+    /**
+     * @return a new request with its handle, settling the given promise
+     */
+    synchronized Request create(@NonNull final Promise promise) {
+        return new Request(nextHandle++, promise);
+    }
+
+    /**
+     * Requests the network, or queues the request when whenBusy is {@link #WHEN_BUSY_QUEUE} and another one
+     * is in flight. Otherwise the request in flight is rejected as superseded.
+     */
+    void submit(@NonNull final Request request, @NonNull final NetworkRequest networkRequest,
+                @NonNull final ConnectivityManager.NetworkCallback callback, @NonNull final Handler callbackHandler,
+                @NonNull final String whenBusy) {
+        final Request superseded;
+        synchronized (this) {
+            request.networkRequest = networkRequest;
+            request.callback = callback;
+            request.callbackHandler = callbackHandler;
+            requests.put(request.handle, request);
+            if (inFlight != null && WHEN_BUSY_QUEUE.equals(whenBusy)) {
+                Log.d(TAG, String.format("queueing network request %d", request.handle));
+                queue.add(request);
+                return;
+            }
+            superseded = inFlight;
+            inFlight = request;
+        }
+        if (superseded != null) {
+            superseded.promise.reject("superseded", "The connection was superseded by a new one");
+        }
+        register(request);
+    }
+
+    /**
+     * Gives another owner its own handle on a request.
+     *
+     * @return the new handle, 0 if there is no request with this handle
+     */
+    synchronized int share(final int handle) {
+        final Request request = requests.get(handle);
+        if (request == null) {
+            return 0;
+        }
+        final int shared = nextHandle++;
+        requests.put(shared, request);
+        request.owners++;
+        return shared;
+    }
+
+    /**
+     * Requests the network again with another request and callback, the request keeping its handle, its promise
+     * and its place in flight.
+     */
+    void resubmit(@NonNull final Request request, @NonNull final NetworkRequest networkRequest,
+                  @NonNull final ConnectivityManager.NetworkCallback callback) {
+        synchronized (this) {
+            if (request.promise.isSettled() || requests.get(request.handle) != request) {
+                return;
+            }
+            unregister(request);
+            request.networkRequest = networkRequest;
+            request.callback = callback;
+            request.network = null;
+        }
+        register(request);
+    }
+
+    @Nullable
+    synchronized Network getNetwork(final int handle) {
+        final Request request = requests.get(handle);
+        return request != null ? request.network : null;
+    }
+
+    /**
+     * Releases the handle, and with the last handle of the request the request itself: its callback is
+     * unregistered and the process is unbound from its network. A request that has not settled yet is rejected as
+     * cancelled.
+     *
+     * @return false if there is no request with this handle
+     */
+    boolean release(final int handle) {
+        final Request request;
+        synchronized (this) {
+            request = requests.remove(handle);
+            if (request == null) {
+                return false;
+            }
+            if (--request.owners > 0) {
+                Log.d(TAG, String.format("network request %d is still owned by %d handles", request.handle, request.owners));
+                return true;
+            }
+        }
+        request.promise.reject("cancelled", "The connection was cancelled");
+        synchronized (this) {
+            queue.remove(request);
+            unregister(request);
+        }
+        return true;
+    }
+
+    void releaseAll() {
+        final List<Integer> handles;
+        synchronized (this) {
+            handles = new ArrayList<>(requests.keySet());
+        }
+        for (int handle : handles) {
+            release(handle);
+        }
+    }
+
+    /**
+     * Rejects as cancelled the request in flight and the queued ones, leaving the connected ones.
+     */
+    void cancelPending() {
+        final List<Request> pending;
+        synchronized (this) {
+            pending = new ArrayList<>(queue);
+            if (inFlight != null) {
+                pending.add(0, inFlight);
+            }
+        }
+        for (Request request : pending) {
+            release(request.handle);
+        }
+    }
+
+    private void register(final Request request) {
+        final ConnectivityManager connectivityManager = services.connectivity();
+        synchronized (this) {
+            if (connectivityManager == null || request.promise.isSettled()) {
+                return;
+            }
+            Log.d(TAG, String.format("requesting network %d", request.handle));
+            connectivityManager.requestNetwork(request.networkRequest, request.callback, request.callbackHandler);
+            request.registered = true;
+        }
+    }
+
+    private void onRequestSettled(final Request request, final boolean resolved) {
+        final Request next;
+        synchronized (this) {
+            if (!resolved) {
+                requests.remove(request.handle);
+                queue.remove(request);
+                unregister(request);
+            }
+            if (inFlight != request) {
+                return;
+            }
+            inFlight = queue.poll();
+            next = inFlight;
+        }
+        if (next != null) {
+            register(next);
+        }
+    }
+
+    private void unregister(final Request request) {
+        final ConnectivityManager connectivityManager = services.connectivity();
+        if (connectivityManager == null) {
+            return;
+        }
+        if (request.registered) {
+            Log.d(TAG, String.format("unregistering network request %d", request.handle));
+            connectivityManager.unregisterNetworkCallback(request.callback);
+            request.registered = false;
+        }
+        if (request.network != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M
+                && request.network.equals(connectivityManager.getBoundNetworkForProcess())) {
+            Log.d(TAG, "bindProcessToNetwork to null");
+            connectivityManager.bindProcessToNetwork(null);
+        }
+    }
+}
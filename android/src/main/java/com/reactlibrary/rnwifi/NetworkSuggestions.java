@@ -0,0 +1,113 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.MacAddress;
+import android.net.wifi.WifiManager;
+import android.net.wifi.WifiNetworkSuggestion;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the network suggestions passed from JS to `addNetworkSuggestions` and `removeNetworkSuggestions`.
+ *
+ * A suggestion takes the `ssid`, `password`, `security` and `bssid` options of `connectToProtectedWifiSSID`, plus
+ * `hidden`, `metered`, `priority` and `appInteractionRequired`. Its other options are rejected. A suggestion is
+ * only removed by an equal one, so the same options have to be passed to remove it.
+ */
+@RequiresApi(api = Build.VERSION_CODES.Q)
+class NetworkSuggestions {
+
+    /**
+     * The options of `connectToProtectedWifiSSID` that only apply to a connection, rejected rather than ignored.
+     */
+    private static final String[] CONNECT_ONLY_OPTIONS = {"timeout", "verification", "whenBusy", "bindProcess", "band"};
+
+    /**
+     * @throws IllegalArgumentException if a suggestion is invalid, with its index
+     */
+    static List<WifiNetworkSuggestion> fromReadableArray(@NonNull final ReadableArray suggestions) {
+        final List<WifiNetworkSuggestion> networkSuggestions = new ArrayList<>(suggestions.size());
+        for (int i = 0; i < suggestions.size(); i++) {
+            try {
+                networkSuggestions.add(fromReadableMap(suggestions.getMap(i)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format("suggestion %d: %s", i, e.getMessage()), e);
+            }
+        }
+        return networkSuggestions;
+    }
+
+    /**
+     * @return the name of a WifiManager.STATUS_NETWORK_SUGGESTIONS_* status
+     */
+    static String statusName(final int status) {
+        switch (status) {
+            case WifiManager.STATUS_NETWORK_SUGGESTIONS_SUCCESS:
+                return "success";
+            case WifiManager.STATUS_NETWORK_SUGGESTIONS_ERROR_INTERNAL:
+                return "internalError";
+            case WifiManager.STATUS_NETWORK_SUGGESTIONS_ERROR_APP_DISALLOWED:
+                return "appDisallowed";
+            case WifiManager.STATUS_NETWORK_SUGGESTIONS_ERROR_ADD_DUPLICATE:
+                return "duplicate";
+            case WifiManager.STATUS_NETWORK_SUGGESTIONS_ERROR_ADD_EXCEEDS_MAX_PER_APP:
+                return "exceedsMaxPerApp";
+            case WifiManager.STATUS_NETWORK_SUGGESTIONS_ERROR_REMOVE_INVALID:
+                return "removeInvalid";
+            default:
+                return "error";
+        }
+    }
+
+    private static WifiNetworkSuggestion fromReadableMap(final ReadableMap suggestion) {
+        if (suggestion == null) {
+            throw new IllegalArgumentException("suggestion is required");
+        }
+        for (String option : CONNECT_ONLY_OPTIONS) {
+            if (suggestion.hasKey(option) && !suggestion.isNull(option)) {
+                throw new IllegalArgumentException(String.format("%s is not supported by suggestions", option));
+            }
+        }
+        final ConnectOptions options = ConnectOptions.fromReadableMap(suggestion);
+        if (options.bssidMask != null) {
+            throw new IllegalArgumentException("bssidMask is not supported by suggestions");
+        }
+        final WifiNetworkSuggestion.Builder builder = new WifiNetworkSuggestion.Builder().setSsid(options.ssid);
+        switch (options.security) {
+            case ConnectOptions.SECURITY_WPA3:
+                builder.setWpa3Passphrase(options.password);
+                break;
+            case ConnectOptions.SECURITY_WPA2:
+                builder.setWpa2Passphrase(options.password);
+                break;
+            case ConnectOptions.SECURITY_OWE:
+                builder.setIsEnhancedOpen(true);
+                break;
+            default:
+                break;
+        }
+        if (options.bssid != null) {
+            builder.setBssid(MacAddress.fromString(options.bssid));
+        }
+        if (suggestion.hasKey("hidden") && !suggestion.isNull("hidden")) {
+            builder.setIsHiddenSsid(suggestion.getBoolean("hidden"));
+        }
+        if (suggestion.hasKey("metered") && !suggestion.isNull("metered")) {
+            builder.setIsMetered(suggestion.getBoolean("metered"));
+        }
+        if (suggestion.hasKey("priority") && !suggestion.isNull("priority")) {
+            builder.setPriority(suggestion.getInt("priority"));
+        }
+        if (suggestion.hasKey("appInteractionRequired") && !suggestion.isNull("appInteractionRequired")) {
+            builder.setIsAppInteractionRequired(suggestion.getBoolean("appInteractionRequired"));
+        }
+        return builder.build();
+    }
+}
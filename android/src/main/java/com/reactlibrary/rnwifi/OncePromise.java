@@ -0,0 +1,119 @@
+package com.reactlibrary.rnwifi;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.facebook.react.bridge.Promise;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Promise wrapper that settles the wrapped promise only once, the later resolve/reject calls are ignored.
+ *
+ * Connecting involves callbacks, broadcasts and timeouts racing each other, all of them settling the promise.
+ */
+class OncePromise implements Promise {
+
+    private static final String TAG = "RNWifi";
+
+    private final Promise promise;
+    private final AtomicBoolean settled = new AtomicBoolean(false);
+    private final List<Runnable> settledActions = new ArrayList<>(1);
+
+    OncePromise(@NonNull final Promise promise) {
+        this.promise = promise;
+    }
+
+    static OncePromise wrap(@NonNull final Promise promise) {
+        return promise instanceof OncePromise ? (OncePromise) promise : new OncePromise(promise);
+    }
+
+    boolean isSettled() {
+        return settled.get();
+    }
+
+    /**
+     * Called once, after the wrapped promise has been settled.
+     *
+     * @param resolved true if the promise was resolved, false if it was rejected
+     */
+    protected void onSettled(final boolean resolved) {
+    }
+
+    /**
+     * Runs the action once the promise is settled, on the thread settling it, or right away if it already is.
+     * Whatever settles the promise, like a superseding connection, can so release what was waiting for it.
+     */
+    void whenSettled(@NonNull final Runnable action) {
+        synchronized (settledActions) {
+            if (!settled.get()) {
+                settledActions.add(action);
+                return;
+            }
+        }
+        action.run();
+    }
+
+    private void runSettledActions(final boolean resolved) {
+        onSettled(resolved);
+        final List<Runnable> actions;
+        synchronized (settledActions) {
+            actions = new ArrayList<>(settledActions);
+            settledActions.clear();
+        }
+        for (Runnable action : actions) {
+            action.run();
+        }
+    }
+
+    private boolean settle() {
+        if (settled.compareAndSet(false, true)) {
+            return true;
+        }
+        Log.d(TAG, "promise already settled");
+        return false;
+    }
+
+    @Override
+    public void resolve(final Object value) {
+        if (settle()) {
+            promise.resolve(value);
+            runSettledActions(true);
+        }
+    }
+
+    @Override
+    public void reject(final String code, final String message) {
+        if (settle()) {
+            promise.reject(code, message);
+            runSettledActions(false);
+        }
+    }
+
+    @Override
+    public void reject(final String code, final Throwable throwable) {
+        if (settle()) {
+            promise.reject(code, throwable);
+            runSettledActions(false);
+        }
+    }
+
+    @Override
+    public void reject(final String code, final String message, final Throwable throwable) {
+        if (settle()) {
+            promise.reject(code, message, throwable);
+            runSettledActions(false);
+        }
+    }
+
+    @Override
+    public void reject(final Throwable throwable) {
+        if (settle()) {
+            promise.reject(throwable);
+            runSettledActions(false);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.reactlibrary.rnwifi;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.ReactContext;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+/**
+ * Names of the events sent to JS and a helper to send them through the RCTDeviceEventEmitter.
+ */
+final class RNWifiEvents {
+
+    static final String SCAN_RESULTS = "WifiScanResults";
+    static final String SCAN_DELTA = "WifiScanDelta";
+    static final String CONNECTION_TIMINGS = "WifiConnectionTimings";
+    static final String SIGNAL_STRENGTH = "WifiSignalStrength";
+    static final String CONNECTIVITY_CHANGED = "WifiConnectivityChanged";
+
+    private RNWifiEvents() {
+    }
+
+    static void emit(@NonNull final ReactContext context, @NonNull final String eventName, @Nullable final Object data) {
+        if (!context.hasActiveCatalystInstance()) {
+            return;
+        }
+        context.getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class).emit(eventName, data);
+    }
+}
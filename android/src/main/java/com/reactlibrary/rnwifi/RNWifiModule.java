@@ -7,6 +7,8 @@ import android.content.IntentFilter;
 import android.location.LocationManager;
 import android.net.ConnectivityManager;
 import android.net.DhcpInfo;
+import android.net.LinkProperties;
+import android.net.MacAddress;
 import android.net.Network;
 import android.net.NetworkCapabilities;
 import android.net.NetworkInfo;
@@ -18,46 +20,80 @@ import android.net.wifi.WifiInfo;
 import android.net.wifi.WifiManager;
 import android.net.wifi.WifiNetworkSpecifier;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.net.wifi.WifiNetworkSuggestion;
 import android.os.PatternMatcher;
 import android.text.format.Formatter;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
 
+import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.uimanager.IllegalViewOperationException;
 import com.reactlibrary.utils.LocationUtils;
 import com.reactlibrary.utils.PermissionUtils;
 import com.thanosfisherman.wifiutils.WifiUtils;
 import com.thanosfisherman.wifiutils.wifiConnect.ConnectionSuccessListener;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 public class RNWifiModule extends ReactContextBaseJavaModule {
-    private final WifiManager wifi;
+    private final SystemServices services;
     private final ReactApplicationContext context;
     private final String TAG= "RNWifi";
-    private ConnectivityManager.NetworkCallback networkCallback = null;
+    private static final String BUSY_ERROR = "busy";
+    private static final String BUSY_MESSAGE = "Too many pending wifi operations";
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ConnectionMetrics connectionMetrics = new ConnectionMetrics();
+    private final WifiOperationExecutor wifiOperations = new WifiOperationExecutor();
+    private final ScanResultEncoder scanResultEncoder = new ScanResultEncoder();
+    private final ScanQuota scanQuota = new ScanQuota();
+    private final ScanStream scanStream;
+    private final ScanCoordinator scanCoordinator;
+    private final ConnectivityWatcher connectivityWatcher;
+    private final ConnectionSnapshotCache connectionSnapshotCache;
+    private final SignalStrengthStream signalStrengthStream;
+    private final NetworkRequestManager networkRequests;
+    private final NetworkFetcher networkFetcher = new NetworkFetcher();
+    private final ReconnectCache reconnectCache = new ReconnectCache();
+    private final ScanRecorder scanRecorder;
 
     RNWifiModule(ReactApplicationContext context) {
+        // The system services are only fetched when first needed
+        this(context, new SystemServices(context));
+    }
+
+    /**
+     * @param services the system services to use, which may be fakes to run the module off a device
+     */
+    RNWifiModule(ReactApplicationContext context, SystemServices services) {
         super(context);
 
-        // TODO: get when needed
-        wifi = (WifiManager) context.getApplicationContext().getSystemService(Context.WIFI_SERVICE);
+        this.services = services;
         this.context = context;
+        scanStream = new ScanStream(context, services, scanQuota);
+        scanCoordinator = new ScanCoordinator(services, scanQuota);
+        connectivityWatcher = new ConnectivityWatcher(context, services);
+        connectionSnapshotCache = new ConnectionSnapshotCache(services, connectivityWatcher);
+        signalStrengthStream = new SignalStrengthStream(context, services, connectionSnapshotCache);
+        networkRequests = new NetworkRequestManager(services);
+        scanRecorder = new ScanRecorder(context, services);
     }
 
     @Override
@@ -65,6 +101,21 @@ public class RNWifiModule extends ReactContextBaseJavaModule {
         return "WifiManager";
     }
 
+    @Override
+    public void onCatalystInstanceDestroy() {
+        super.onCatalystInstanceDestroy();
+        scanStream.stop();
+        scanCoordinator.stop();
+        signalStrengthStream.stop();
+        connectivityWatcher.stop();
+        networkRequests.releaseAll();
+        scanRecorder.shutdown();
+        services.quitScanThread();
+        mainHandler.removeCallbacksAndMessages(null);
+        wifiOperations.shutdown();
+        networkFetcher.shutdown();
+    }
+
     /**
      * Method to load wifi list into string via Callback. Returns a stringified JSONArray
      *
@@ -72,30 +123,75 @@ public class RNWifiModule extends ReactContextBaseJavaModule {
      * @param errorCallback
      */
     @ReactMethod
-    public void loadWifiList(Callback successCallback, Callback errorCallback) {
+    public void loadWifiList(final Callback successCallback, final Callback errorCallback) {
         try {
-            List<ScanResult> results = wifi.getScanResults();
-            JSONArray wifiArray = new JSONArray();
-
-            for (ScanResult result : results) {
-                JSONObject wifiObject = new JSONObject();
-                if (!result.SSID.equals("")) {
+            wifiOperations.read(new Runnable() {
+                @Override
+                public void run() {
                     try {
-                        wifiObject.put("SSID", result.SSID);
-                        wifiObject.put("BSSID", result.BSSID);
-                        wifiObject.put("capabilities", result.capabilities);
-                        wifiObject.put("frequency", result.frequency);
-                        wifiObject.put("level", result.level);
-                        wifiObject.put("timestamp", result.timestamp);
-                    } catch (JSONException e) {
+                        successCallback.invoke(scanResultEncoder.toJson(services.scanResults().getScanResults()));
+                    } catch (IllegalViewOperationException e) {
                         errorCallback.invoke(e.getMessage());
                     }
-                    wifiArray.put(wifiObject);
                 }
-            }
-            successCallback.invoke(wifiArray.toString());
-        } catch (IllegalViewOperationException e) {
-            errorCallback.invoke(e.getMessage());
+            });
+        } catch (RejectedExecutionException e) {
+            errorCallback.invoke(BUSY_MESSAGE);
+        }
+    }
+
+    /**
+     * Method to load wifi list as an array of objects via Promise.
+     * Unlike `loadWifiList`, the results are written straight into a WritableArray,
+     * so no JSON string has to be built here nor parsed again on the JS side.
+     *
+     * @param promise resolves with an array of wifi objects
+     */
+    @ReactMethod
+    public void loadWifiListNative(final Promise promise) {
+        try {
+            wifiOperations.read(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        promise.resolve(scanResultEncoder.toWritableArray(services.scanResults().getScanResults()));
+                    } catch (IllegalViewOperationException e) {
+                        promise.reject("loadWifiListFailed", e.getMessage());
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            promise.reject(BUSY_ERROR, BUSY_MESSAGE);
+        }
+    }
+
+    /**
+     * Like `loadWifiListNative`, but only resolves with the results matching the query, strongest first,
+     * so that only what is displayed crosses the bridge.
+     *
+     * @param query   `ssidPrefix`, `ssidPattern` (a regular expression), `band`, `minLevel` in dBm, `security`
+     *                (accepted security types), `dedup` to keep only the strongest access point of each SSID,
+     *                and `limit`, the maximum number of results
+     * @param promise resolves with an array of wifi objects
+     */
+    @ReactMethod
+    public void queryWifiList(final ReadableMap query, final Promise promise) {
+        final ScanQuery scanQuery;
+        try {
+            scanQuery = ScanQuery.fromReadableMap(query);
+        } catch (IllegalArgumentException e) {
+            promise.reject("invalid options", e.getMessage());
+            return;
+        }
+        try {
+            wifiOperations.read(new Runnable() {
+                @Override
+                public void run() {
+                    promise.resolve(scanResultEncoder.toWritableArray(scanQuery.apply(services.scanResults().getScanResults())));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            promise.reject(BUSY_ERROR, BUSY_MESSAGE);
         }
     }
 
@@ -112,8 +208,7 @@ public class RNWifiModule extends ReactContextBaseJavaModule {
      */
     @ReactMethod
     public void forceWifiUsage(final boolean useWifi, final Promise promise) {
-        final ConnectivityManager connectivityManager = (ConnectivityManager) context
-                .getSystemService(Context.CONNECTIVITY_SERVICE);
+        final ConnectivityManager connectivityManager = services.connectivity();
 
         if (connectivityManager == null) {
             promise.reject(ForceWifiUsageErrorCodes.couldNotGetConnectivityManager.toString(), "Failed to get the ConnectivityManager.");
@@ -156,8 +251,13 @@ public class RNWifiModule extends ReactContextBaseJavaModule {
      * @param isEnabled
      */
     @ReactMethod
-    public void isEnabled(Callback isEnabled) {
-        isEnabled.invoke(wifi.isWifiEnabled());
+    public void isEnabled(final Callback isEnabled) {
+        readConnection(new Runnable() {
+            @Override
+            public void run() {
+                isEnabled.invoke(services.wifi().isWifiEnabled());
+            }
+        });
     }
 
     /**
@@ -166,15 +266,33 @@ public class RNWifiModule extends ReactContextBaseJavaModule {
      * @param enabled
      */
     @ReactMethod
-    public void setEnabled(Boolean enabled) {
-        wifi.setWifiEnabled(enabled);
+    public void setEnabled(final Boolean enabled) {
+        try {
+            wifiOperations.write(new Runnable() {
+                @Override
+                public void run() {
+                    services.wifi().setWifiEnabled(enabled);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, BUSY_MESSAGE);
+        }
     }
 
-    public void verifyNetworkSwitched(final String SSID, final Promise promise){
-      Log.d(TAG, "verifyNetworkSwitched");
+    public void verifyNetworkSwitched(final ConnectOptions options, final ConnectTimings timings, final Promise promise){
+      verifyNetworkSwitched(options, timings, OncePromise.wrap(promise), 0, null);
+    }
 
-      // Timeout if there is no other saved WiFi network reachable
-      ScheduledThreadPoolExecutor exec = new ScheduledThreadPoolExecutor(1);
+    /**
+     * Waits for the network state broadcast of the SSID, until the timeout or until the promise is settled by
+     * something else, like a superseding connection.
+     */
+    private void verifyNetworkSwitched(final ConnectOptions options, final ConnectTimings timings, final OncePromise promise, final int handle, final String bssid){
+      Log.d(TAG, "verifyNetworkSwitched");
+      final String SSID = options.ssid;
+      if (promise.isSettled()) {
+        return;
+      }
 
       // Verify the connection
       final IntentFilter intentFilter = new IntentFilter();
@@ -182,9 +300,12 @@ public class RNWifiModule extends ReactContextBaseJavaModule {
       final BroadcastReceiver receiver = new BroadcastReceiver() {
         @Override
         public void onReceive(final Context context, final Intent intent) {
+          if (promise.isSettled()) {
+            return;
+          }
           final NetworkInfo info = intent.getParcelableExtra(WifiManager.EXTRA_NETWORK_INFO);
           if (info != null && info.isConnected()) {
-            final WifiInfo wifiInfo = wifi.getConnectionInfo();
+            final WifiInfo wifiInfo = services.wifi().getConnectionInfo();
             String ssid = wifiInfo.getSSID();
             // This value should be wrapped in double quotes, so we need to unwrap it.
             if (ssid.startsWith("\"") && ssid.endsWith("\"")) {
@@ -192,13 +313,12 @@ public class RNWifiModule extends ReactContextBaseJavaModule {
             }
             Log.d(TAG, "connect to "+ssid);
 
-            context.unregisterReceiver(this);
-            exec.shutdownNow();
             if (ssid.equals(SSID)) {
-              final String routerIP = Formatter.formatIpAddress(wifi.getDhcpInfo().gateway);
-              final String localIP = Formatter.formatIpAddress(wifi.getDhcpInfo().ipAddress);
+              final String routerIP = Formatter.formatIpAddress(services.wifi().getDhcpInfo().gateway);
+              final String localIP = Formatter.formatIpAddress(services.wifi().getDhcpInfo().ipAddress);
               Log.d(TAG, String.format("Network %s ip %s router %s", SSID, localIP,routerIP));
-              promise.resolve(null);
+              timings.mark("verify");
+              resolveConnected(options, timings, promise, null, handle, bssid != null ? bssid : wifiInfo.getBSSID());
             }
             else {
               promise.reject("connectNetworkFailed", String.format("Could not connect to network with SSID: %s", SSID));
@@ -206,23 +326,75 @@ public class RNWifiModule extends ReactContextBaseJavaModule {
           }
         }
       };
-      exec.schedule(new Runnable() {
+      // Timeout if there is no other saved WiFi network reachable.
+      mainHandler.postAtTime(new Runnable() {
         public void run() {
           Log.d(TAG, "timeout");
-          context.unregisterReceiver(receiver);//make sure promise only resolve once
           promise.reject("connectNetworkFailed", String.format("Timeout connecting to network with SSID: %s", SSID));
         }
-      }, 10, TimeUnit.SECONDS);
-      context.registerReceiver(receiver, intentFilter);
+      }, receiver, SystemClock.uptimeMillis() + options.timeoutMs);
+      context.registerReceiver(receiver, intentFilter, null, mainHandler);
+      // Whatever settles the promise, the receiver and the timeout are released once
+      promise.whenSettled(new Runnable() {
+        @Override
+        public void run() {
+          context.unregisterReceiver(receiver);
+          mainHandler.removeCallbacksAndMessages(receiver);
+        }
+      });
     }
 
+    /**
+     * @param unpinned true to retry a request that was pinned to an access point that could not be reached, without
+     *                 pinning it unless the options ask for it
+     */
     @RequiresApi(api = Build.VERSION_CODES.Q)
-    private void androidQConnectToProtectedSSID(@NonNull final String SSID, @NonNull final String password, final boolean isWep, final Promise promise) {
-      Log.d(TAG, String.format("call androidQConnectToProtectedSSID with %s %s", SSID, password));
+    private void androidQConnectToProtectedSSID(@NonNull final ConnectOptions options, final ConnectTimings timings, final NetworkRequestManager.Request managedRequest, final boolean unpinned) {
+      Log.d(TAG, String.format("call androidQConnectToProtectedSSID with %s", options.ssid));
+      final OncePromise promise = managedRequest.promise;
 
-      final NetworkSpecifier specifier =
-        new WifiNetworkSpecifier.Builder().setSsid(SSID).setWpa2Passphrase(password)
-          .build();
+      final WifiNetworkSpecifier.Builder specifierBuilder = new WifiNetworkSpecifier.Builder().setSsid(options.ssid);
+      switch (options.security) {
+        case ConnectOptions.SECURITY_WPA3:
+          specifierBuilder.setWpa3Passphrase(options.password);
+          break;
+        case ConnectOptions.SECURITY_WPA2:
+          specifierBuilder.setWpa2Passphrase(options.password);
+          break;
+        case ConnectOptions.SECURITY_OWE:
+          specifierBuilder.setIsEnhancedOpen(true);
+          break;
+        default:
+          break;
+      }
+      // Pin an access point so that the platform does not have to discover one: the requested one, else the
+      // strongest of the recent scans, else the one of the last connection.
+      String bssid = null;
+      boolean pinnedFromCache = false;
+      boolean autoPinned = false;
+      if (options.bssidMask != null) {
+        specifierBuilder.setBssidPattern(MacAddress.fromString(options.bssid), MacAddress.fromString(options.bssidMask));
+      } else {
+        bssid = options.bssid;
+        if (bssid == null && !unpinned) {
+          // The results of the last scan, the scan results of the source being a binder call
+          bssid = AccessPointSelector.strongest(scanCoordinator.getCachedResults(), options.ssid, options.band);
+          if (bssid == null) {
+            final ReconnectCache.Entry cached = reconnectCache.get(options.ssid);
+            bssid = cached != null ? cached.bssid : null;
+            pinnedFromCache = bssid != null;
+          }
+          autoPinned = bssid != null;
+        }
+        if (bssid != null) {
+          Log.d(TAG, String.format("pinning the connection to %s", bssid));
+          specifierBuilder.setBssid(MacAddress.fromString(bssid));
+        }
+      }
+      final boolean pinned = pinnedFromCache;
+      final boolean retryUnpinned = autoPinned;
+      final String pinnedBssid = bssid;
+      final NetworkSpecifier specifier = specifierBuilder.build();
 
       final NetworkRequest request =
         new NetworkRequest.Builder()
@@ -230,8 +402,7 @@ public class RNWifiModule extends ReactContextBaseJavaModule {
           .setNetworkSpecifier(specifier)
           .build();
 
-      final ConnectivityManager connectivityManager = (ConnectivityManager)
-        context.getSystemService(Context.CONNECTIVITY_SERVICE);
+      final ConnectivityManager connectivityManager = services.connectivity();
 
       if(connectivityManager == null){
         Log.d(TAG, "Can not get ConnectivityManager");
@@ -239,16 +410,60 @@ public class RNWifiModule extends ReactContextBaseJavaModule {
         return;
       }
 
-      networkCallback = new ConnectivityManager.NetworkCallback() {
+      final boolean verifyWithCallback = ConnectOptions.VERIFICATION_CALLBACK.equals(options.verification);
+      final ConnectivityManager.NetworkCallback networkCallback = new ConnectivityManager.NetworkCallback() {
+        private boolean available = false;
+        private boolean hasWifiTransport = false;
+        private boolean hasAddress = false;
+
         @Override
         public void onAvailable(@NonNull Network network) {
           super.onAvailable(network);
+          timings.mark("available");
+          managedRequest.setNetwork(network);
 
           Log.d(TAG, String.format("AndroidQ+ request to wifi %s",network.toString()));
-          boolean binded = connectivityManager.bindProcessToNetwork(network);
-          Log.d(TAG, String.format("AndroidQ+ bind to wifi %b", binded));
+          if (options.bindProcess) {
+            boolean binded = connectivityManager.bindProcessToNetwork(network);
+            Log.d(TAG, String.format("AndroidQ+ bind to wifi %b", binded));
+            timings.mark("bind");
+          }
+
+          if (!verifyWithCallback) {
+            verifyNetworkSwitched(options, timings, promise, managedRequest.handle, pinnedBssid);
+            return;
+          }
+          available = true;
+          mainHandler.postAtTime(new Runnable() {
+            public void run() {
+              Log.d(TAG, "timeout");
+              promise.reject("connectNetworkFailed", String.format("Timeout connecting to network with SSID: %s", options.ssid));
+            }
+          }, this, SystemClock.uptimeMillis() + options.timeoutMs);
+          resolveIfUsable();
+        }
 
-          verifyNetworkSwitched(SSID, promise);
+        @Override
+        public void onCapabilitiesChanged(@NonNull Network network, @NonNull NetworkCapabilities networkCapabilities) {
+          super.onCapabilitiesChanged(network, networkCapabilities);
+          hasWifiTransport = networkCapabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI);
+          resolveIfUsable();
+        }
+
+        @Override
+        public void onLinkPropertiesChanged(@NonNull Network network, @NonNull LinkProperties linkProperties) {
+          super.onLinkPropertiesChanged(network, linkProperties);
+          hasAddress = !linkProperties.getLinkAddresses().isEmpty();
+          resolveIfUsable();
+        }
+
+        private void resolveIfUsable() {
+          // The requested network is the one matching the specifier, so there is no need to check its SSID
+          if (verifyWithCallback && available && hasWifiTransport && hasAddress && !promise.isSettled()) {
+            mainHandler.removeCallbacksAndMessages(this);
+            timings.mark("verify");
+            resolveConnected(options, timings, promise, null, managedRequest.handle, pinnedBssid);
+          }
         }
 
         @Override
@@ -256,11 +471,27 @@ public class RNWifiModule extends ReactContextBaseJavaModule {
           super.onUnavailable();
 
           Log.d(TAG, "AndroidQ+ could not connect to wifi");
+          if (pinned) {
+            reconnectCache.unpin(options.ssid);
+          }
+          if (retryUnpinned && !promise.isSettled()) {
+            // The access point picked may be gone, let the platform find one
+            Log.d(TAG, String.format("retrying without pinning the connection to %s", pinnedBssid));
+            timings.mark("unavailable");
+            androidQConnectToProtectedSSID(options, timings, managedRequest, true);
+            return;
+          }
           promise.reject("failed", "AndroidQ+ could not connect to wifi");
 
         }
       };
-      connectivityManager.requestNetwork(request, networkCallback);
+      // Deliver the callbacks on the main thread, like the verification timeout
+      if (unpinned) {
+        networkRequests.resubmit(managedRequest, request, networkCallback);
+      } else {
+        networkRequests.submit(managedRequest, request, networkCallback, mainHandler, options.whenBusy);
+      }
+      timings.mark("requestNetwork");
     }
 
     /**
@@ -275,89 +506,280 @@ public class RNWifiModule extends ReactContextBaseJavaModule {
      */
     @ReactMethod
     public void connectToProtectedSSID(@NonNull final String SSID, @NonNull final String password, final boolean isWep, final Promise promise) {
+        connect(new ConnectOptions(SSID, password, isWep), promise);
+    }
+
+    /**
+     * Same as `connectToProtectedSSID`, with the parameters passed as an object.
+     * The promise resolves with the `timings`, the milliseconds spent in each phase of the connection, and on
+     * Android 10+ with the `handle` to pass to `disconnectNetwork`.
+     *
+     * @param options `ssid`, `password`, `isWep`, `timeout`, the milliseconds to wait for the connection
+     *                (default 10000), `verification`: `broadcast` (default) waits for the network state broadcast
+     *                and checks the connected SSID, `callback` resolves as soon as the requested network has an address
+     *                (Android 10+), `whenBusy`: `supersede` (default) rejects the connection in progress,
+     *                `queue` waits for it to settle (Android 10+), and `bindProcess`: false leaves the app on the
+     *                default network, the connected one being only used by `fetchOverNetwork` (Android 10+),
+     *                `bssid` and `bssidMask` to pick the access point, else the strongest one of the recent scans
+     *                is picked, in the `band` if given (Android 10+), and `security`: `open`, `owe`, `wpa2` or
+     *                `wpa3` (Android 10+)
+     * @param promise to send success/error feedback
+     */
+    @ReactMethod
+    public void connectToProtectedWifiSSID(@NonNull final ReadableMap options, final Promise promise) {
+        final ConnectOptions connectOptions;
+        try {
+            connectOptions = ConnectOptions.fromReadableMap(options);
+        } catch (IllegalArgumentException e) {
+            promise.reject("invalid options", e.getMessage());
+            return;
+        }
+        connect(connectOptions, promise);
+    }
+
+    private void connect(@NonNull final ConnectOptions options, final Promise promise) {
+        final OncePromise oncePromise = OncePromise.wrap(promise);
+        final ConnectTimings timings = new ConnectTimings();
         final boolean locationPermissionGranted = PermissionUtils.isLocationPermissionGranted(context);
         if (!locationPermissionGranted) {
-            promise.reject("location permission missing", "Location permission is not granted");
+            oncePromise.reject("location permission missing", "Location permission is not granted");
             return;
         }
 
         final boolean isLocationOn = LocationUtils.isLocationOn(context);
         if (!isLocationOn) {
-            promise.reject("location off", "Location service is turned off");
+            oncePromise.reject("location off", "Location service is turned off");
             return;
         }
+        timings.mark("permissions");
         if(isAndroid10OrLater()){
+          if (reconnectCached(options, timings, oncePromise)) {
+            return;
+          }
           Log.d(TAG,"androidQConnectToProtectedSSID");
-          androidQConnectToProtectedSSID(SSID,password,isWep,promise);
+          androidQConnectToProtectedSSID(options, timings, networkRequests.create(oncePromise), false);
           return;
         }
         WifiUtils.enableLog(true);
-        WifiUtils.withContext(context).connectWith(SSID, password).onConnectionResult(new ConnectionSuccessListener() {
+        WifiUtils.withContext(context).connectWith(options.ssid, options.password).setTimeout(options.timeoutMs).onConnectionResult(new ConnectionSuccessListener() {
             @Override
             public void isSuccessful(boolean isSuccess) {
                 if (isSuccess) {
-                    promise.resolve("connected");
+                    timings.mark("connect");
+                    resolveConnected(options, timings, oncePromise, "connected", 0, null);
                 } else {
-                    promise.reject("failed", "Could not connect to network");
+                    oncePromise.reject("failed", "Could not connect to network");
                 }
             }
         }).start();
 
     }
 
+    /**
+     * Resolves the connection right away with the network of the last connection to the same SSID, if it is still
+     * alive, instead of requesting a network again. The connection gets its own handle on that network, which is
+     * only released with the last of its handles.
+     *
+     * @return false if there is no such network
+     */
+    @RequiresApi(api = Build.VERSION_CODES.Q)
+    private boolean reconnectCached(@NonNull final ConnectOptions options, final ConnectTimings timings, final Promise promise) {
+      final ReconnectCache.Entry cached = reconnectCache.get(options.ssid);
+      // The cached network may be on another access point than the requested one
+      final boolean matches = cached != null
+        && (options.bssid == null || (options.bssidMask == null && options.bssid.equalsIgnoreCase(cached.bssid)));
+      final Network network = matches ? networkRequests.getNetwork(cached.handle) : null;
+      final ConnectivityManager connectivityManager = services.connectivity();
+      final boolean alive = network != null && connectivityManager != null
+        && connectivityManager.getNetworkCapabilities(network) != null;
+      connectionMetrics.recordReconnect(alive);
+      final int handle = alive ? networkRequests.share(cached.handle) : 0;
+      if (handle == 0) {
+        return false;
+      }
+      Log.d(TAG, String.format("reusing the network %s of %s", network, options.ssid));
+      timings.mark("reuse");
+      if (options.bindProcess) {
+        connectivityManager.bindProcessToNetwork(network);
+        timings.mark("bind");
+      }
+      resolveConnected(options, timings, promise, null, handle, cached.bssid);
+      return true;
+    }
+
+    /**
+     * Resolves a connection with its timings and handle, 0 when the connection has none, or with the legacy value
+     * when called from `connectToProtectedSSID`.
+     *
+     * @param bssid the access point of the connection if known, remembered with its handle
+     */
+    private void resolveConnected(final ConnectOptions options, final ConnectTimings timings, final Promise promise, final Object legacyValue, final int handle, @Nullable final String bssid) {
+        Log.d(TAG, String.format("connected to %s in %s", options.ssid, timings));
+        connectionMetrics.record(timings.toMap());
+        final WritableMap event = Arguments.createMap();
+        event.putString("SSID", options.ssid);
+        event.putMap("timings", timings.toWritableMap());
+        RNWifiEvents.emit(context, RNWifiEvents.CONNECTION_TIMINGS, event);
+        // A handle released meanwhile has no network left to reuse
+        if (handle != 0 && networkRequests.getNetwork(handle) != null) {
+            reconnectCache.put(options.ssid, handle, bssid);
+        }
+
+        if (!options.resolveDetails) {
+            promise.resolve(legacyValue);
+        } else {
+            final WritableMap details = Arguments.createMap();
+            details.putMap("timings", timings.toWritableMap());
+            if (handle != 0) {
+                details.putInt("handle", handle);
+            }
+            promise.resolve(details);
+        }
+        if (handle != 0 && bssid == null) {
+            learnBssid(options.ssid, handle);
+        }
+    }
+
+    /**
+     * Reads the access point of a connection that was not pinned to one, off the connection path, so that the next
+     * network request to the SSID can be pinned to it.
+     */
+    private void learnBssid(final String ssid, final int handle) {
+        try {
+            wifiOperations.read(new Runnable() {
+                @Override
+                public void run() {
+                    connectionSnapshotCache.invalidate();
+                    final ConnectionSnapshot snapshot = connectionSnapshotCache.get();
+                    if (ssid.equals(snapshot.ssid)) {
+                        reconnectCache.setBssid(ssid, handle, snapshot.bssid);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.d(TAG, String.format("the BSSID of %s is not known: %s", ssid, BUSY_MESSAGE));
+        }
+    }
+
+    /**
+     * This method returns the rolling histograms of the successful connections timings: the number of recorded
+     * `connections` and, for every phase, the `count`, `p50`, `p95` and `p99` in milliseconds.
+     *
+     * @param promise
+     */
+    @ReactMethod
+    public void getConnectionMetrics(final Promise promise) {
+        promise.resolve(connectionMetrics.toWritableMap());
+    }
+
     /**
      * Use this method to check if the device is currently connected to Wifi.
+     * It answers from the connectivity state kept up to date by a network callback.
      *
      * @param connectionStatusResult
      */
     @ReactMethod
     public void connectionStatus(Callback connectionStatusResult) {
-        ConnectivityManager connManager = (ConnectivityManager) getReactApplicationContext().getSystemService(Context.CONNECTIVITY_SERVICE);
-        NetworkInfo mWifi = connManager.getNetworkInfo(ConnectivityManager.TYPE_WIFI);
-        if (mWifi.isConnected()) {
-            connectionStatusResult.invoke(true);
-        } else {
-            connectionStatusResult.invoke(false);
-        }
+        connectionStatusResult.invoke(connectivityWatcher.isConnected());
+    }
+
+    /**
+     * This method will return the wifi connectivity state: `connected`, `SSID`, `validated` (the network has a
+     * working internet access) and `metered`. Every change of this state is also sent as a
+     * `WifiConnectivityChanged` event once it has been called.
+     *
+     * @param promise
+     */
+    @ReactMethod
+    public void getConnectivityState(final Promise promise) {
+        promise.resolve(connectivityWatcher.getState());
     }
 
     /**
      * Disconnect current Wifi.
+     * On Android 10+, every network requested by the connection methods is released.
      */
     @ReactMethod
     public void disconnect() {
       if(isAndroid10OrLater()){
-        ConnectivityManager connManager = (ConnectivityManager) getReactApplicationContext().getSystemService(Context.CONNECTIVITY_SERVICE);
+        networkRequests.releaseAll();
+        ConnectivityManager connManager = services.connectivity();
         if(connManager!=null) {
-          if(networkCallback!=null) {
-            Log.d(TAG,"unregisterNetworkCallback");
-            connManager.unregisterNetworkCallback(networkCallback);
-            networkCallback = null;
-          }
           Log.d(TAG,"bindProcessToNetwork to null");
           connManager.bindProcessToNetwork(null);
         }
       }else{
-        wifi.disconnect();
+        services.wifi().disconnect();
       }
     }
 
     /**
-     * This method will return current SSID
+     * Releases the network of a connection made on Android 10+, by the `handle` its connection resolved with.
+     * A network reused by several connections is only released with the last of their handles.
+     * A connection still in progress is rejected as cancelled.
+     * The promise resolves false if there is no connection with this handle.
      *
+     * @param handle
      * @param promise
      */
     @ReactMethod
-    public void getCurrentWifiSSID(final Promise promise) {
-        WifiInfo info = wifi.getConnectionInfo();
+    public void disconnectNetwork(final int handle, final Promise promise) {
+        promise.resolve(networkRequests.release(handle));
+    }
 
-        // This value should be wrapped in double quotes, so we need to unwrap it.
-        String ssid = info.getSSID();
-        if (ssid.startsWith("\"") && ssid.endsWith("\"")) {
-            ssid = ssid.substring(1, ssid.length() - 1);
+    /**
+     * Sends an HTTP request through the network of a connection made on Android 10+, by the `handle` its
+     * connection resolved with, whether the app is bound to it or not.
+     * The promise resolves with the `status`, `headers` and `body` of the response.
+     *
+     * @param handle
+     * @param options `url`, `method` (default GET), `headers`, `body`, not allowed for GET and HEAD, `timeout` in
+     *                milliseconds (default 10000), `responseType`: `text` (default) or `base64` for binary payloads,
+     *                and `maxResponseSize` in bytes (default 1 MiB)
+     * @param promise
+     */
+    @ReactMethod
+    public void fetchOverNetwork(final int handle, @NonNull final ReadableMap options, final Promise promise) {
+        final Network network = networkRequests.getNetwork(handle);
+        if (network == null) {
+            promise.reject("networkUnavailable", String.format("No connected network with handle %d", handle));
+            return;
+        }
+        try {
+            networkFetcher.fetch(network, options, promise);
+        } catch (IllegalArgumentException e) {
+            promise.reject("invalid options", e.getMessage());
+        } catch (RejectedExecutionException e) {
+            promise.reject(BUSY_ERROR, BUSY_MESSAGE);
         }
+    }
+
+    /**
+     * Cancels the connection in progress and the queued ones on Android 10+: their promises are rejected as
+     * cancelled. The connected networks are kept.
+     */
+    @ReactMethod
+    public void cancelConnection() {
+        networkRequests.cancelPending();
+    }
 
-        promise.resolve(ssid);
+    /**
+     * This method will return current SSID
+     *
+     * @param promise
+     */
+    @ReactMethod
+    public void getCurrentWifiSSID(final Promise promise) {
+        try {
+            wifiOperations.read(new Runnable() {
+                @Override
+                public void run() {
+                    promise.resolve(connectionSnapshotCache.get().ssid);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            promise.reject(BUSY_ERROR, BUSY_MESSAGE);
+        }
     }
 
     /**
@@ -368,11 +790,12 @@ public class RNWifiModule extends ReactContextBaseJavaModule {
      */
     @ReactMethod
     public void getBSSID(final Callback callback) {
-        WifiInfo info = wifi.getConnectionInfo();
-
-        String bssid = info.getBSSID();
-
-        callback.invoke(bssid.toUpperCase());
+        readConnection(new Runnable() {
+            @Override
+            public void run() {
+                callback.invoke(connectionSnapshotCache.get().bssid);
+            }
+        });
     }
 
     /**
@@ -382,8 +805,12 @@ public class RNWifiModule extends ReactContextBaseJavaModule {
      */
     @ReactMethod
     public void getCurrentSignalStrength(final Callback callback) {
-        int linkSpeed = wifi.getConnectionInfo().getRssi();
-        callback.invoke(linkSpeed);
+        readConnection(new Runnable() {
+            @Override
+            public void run() {
+                callback.invoke(connectionSnapshotCache.get().rssi);
+            }
+        });
     }
 
     /**
@@ -393,9 +820,12 @@ public class RNWifiModule extends ReactContextBaseJavaModule {
      */
     @ReactMethod
     public void getFrequency(final Callback callback) {
-        WifiInfo info = wifi.getConnectionInfo();
-        int frequency = info.getFrequency();
-        callback.invoke(frequency);
+        readConnection(new Runnable() {
+            @Override
+            public void run() {
+                callback.invoke(connectionSnapshotCache.get().frequency);
+            }
+        });
     }
 
     /**
@@ -405,9 +835,59 @@ public class RNWifiModule extends ReactContextBaseJavaModule {
      */
     @ReactMethod
     public void getIP(final Callback callback) {
-        WifiInfo info = wifi.getConnectionInfo();
-        String stringIP = longToIP(info.getIpAddress());
-        callback.invoke(stringIP);
+        readConnection(new Runnable() {
+            @Override
+            public void run() {
+                callback.invoke(longToIP(connectionSnapshotCache.get().ipAddress));
+            }
+        });
+    }
+
+    /**
+     * Runs a query of the connection answering a single callback, which has no way to tell that the operations
+     * queue is full: it is then run right away instead.
+     */
+    private void readConnection(final Runnable query) {
+        try {
+            wifiOperations.read(query);
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, BUSY_MESSAGE);
+            query.run();
+        }
+    }
+
+    /**
+     * Starts sending the signal strength of the current connection as `WifiSignalStrength` events, with the
+     * `signalStrength` in dBm and the `linkDownstreamBandwidthKbps`/`linkUpstreamBandwidthKbps` estimations.
+     * Calling it again while started updates the options.
+     *
+     * @param options `debounce`: minimum milliseconds between two events (default 1000),
+     *                `rssiThreshold`: RSSI change in dBm needed to send an event (default 1),
+     *                `bandwidthThreshold`: downstream bandwidth change in Kbps needed to send an event (default 1000)
+     */
+    @ReactMethod
+    public void startSignalStrengthUpdates(final ReadableMap options) {
+        signalStrengthStream.start(options);
+    }
+
+    /**
+     * Stops the `WifiSignalStrength` events started with `startSignalStrengthUpdates`.
+     */
+    @ReactMethod
+    public void stopSignalStrengthUpdates() {
+        signalStrengthStream.stop();
+    }
+
+    /**
+     * This method will return the current connection at once: `SSID`, `BSSID`, `signalStrength`, `frequency`,
+     * `linkSpeed`, `networkId`, `IP` and `gateway`.
+     * It is cached like the other getters, and read again when the wifi network changes.
+     *
+     * @param promise
+     */
+    @ReactMethod
+    public void getConnectionSnapshot(final Promise promise) {
+        promise.resolve(connectionSnapshotCache.get().toWritableMap());
     }
 
     /**
@@ -418,18 +898,133 @@ public class RNWifiModule extends ReactContextBaseJavaModule {
      *                false means the ssid removed failed.
      */
     @ReactMethod
-    public void isRemoveWifiNetwork(String ssid, final Promise promise) {
-        List<WifiConfiguration> mWifiConfigList = wifi.getConfiguredNetworks();
-        for (WifiConfiguration wifiConfig : mWifiConfigList) {
-            String comparableSSID = ('"' + ssid + '"'); //Add quotes because wifiConfig.SSID has them
-            if (wifiConfig.SSID.equals(comparableSSID)) {
-                boolean success = wifi.removeNetwork(wifiConfig.networkId);
-                wifi.saveConfiguration();
-                promise.resolve(success);
-                return;
-            }
+    public void isRemoveWifiNetwork(final String ssid, final Promise promise) {
+        try {
+            wifiOperations.write(new Runnable() {
+                @Override
+                public void run() {
+                    List<WifiConfiguration> mWifiConfigList = services.wifi().getConfiguredNetworks();
+                    for (WifiConfiguration wifiConfig : mWifiConfigList) {
+                        String comparableSSID = ('"' + ssid + '"'); //Add quotes because wifiConfig.SSID has them
+                        if (wifiConfig.SSID.equals(comparableSSID)) {
+                            boolean success = services.wifi().removeNetwork(wifiConfig.networkId);
+                            services.wifi().saveConfiguration();
+                            promise.resolve(success);
+                            return;
+                        }
+                    }
+                    promise.resolve(true);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            promise.reject(BUSY_ERROR, BUSY_MESSAGE);
+        }
+    }
+
+    /**
+     * This method will remove the wifi networks as per the passed SSIDs from the device list, fetching the list
+     * and saving the configuration only once.
+     *
+     * @param ssids
+     * @param promise resolves with a map of every SSID to its result, like `isRemoveWifiNetwork`:
+     *                true means the ssid has been removed or did not exist in configured network list,
+     *                false means the ssid removal failed.
+     */
+    @ReactMethod
+    public void removeWifiNetworks(final ReadableArray ssids, final Promise promise) {
+        try {
+            wifiOperations.write(new Runnable() {
+                @Override
+                public void run() {
+                    final Map<String, Boolean> results = new HashMap<>();
+                    for (int i = 0; i < ssids.size(); i++) {
+                        //Add quotes because wifiConfig.SSID has them
+                        results.put('"' + ssids.getString(i) + '"', true);
+                    }
+                    boolean removed = false;
+                    final List<WifiConfiguration> configuredNetworks = services.wifi().getConfiguredNetworks();
+                    if (configuredNetworks != null) {
+                        for (WifiConfiguration wifiConfig : configuredNetworks) {
+                            final Boolean result = results.get(wifiConfig.SSID);
+                            if (result != null) {
+                                final boolean success = services.wifi().removeNetwork(wifiConfig.networkId);
+                                results.put(wifiConfig.SSID, result && success);
+                                removed |= success;
+                            }
+                        }
+                    }
+                    if (removed) {
+                        services.wifi().saveConfiguration();
+                    }
+
+                    final WritableMap resultMap = Arguments.createMap();
+                    for (Map.Entry<String, Boolean> result : results.entrySet()) {
+                        final String quotedSsid = result.getKey();
+                        resultMap.putBoolean(quotedSsid.substring(1, quotedSsid.length() - 1), result.getValue());
+                    }
+                    promise.resolve(resultMap);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            promise.reject(BUSY_ERROR, BUSY_MESSAGE);
+        }
+    }
+
+    /**
+     * Suggests networks for the platform to join on its own, without user prompt, in a single call (Android 10+).
+     * The promise resolves with the `status` of the batch, like `success` or `duplicate`, and its `code`.
+     *
+     * @param suggestions the `ssid`, `password`, `security` and `bssid` of each network, like for
+     *                    `connectToProtectedWifiSSID`, and optionally `hidden`, `metered`, `priority` and
+     *                    `appInteractionRequired`
+     * @param promise
+     */
+    @ReactMethod
+    public void addNetworkSuggestions(final ReadableArray suggestions, final Promise promise) {
+        updateNetworkSuggestions(suggestions, true, promise);
+    }
+
+    /**
+     * Removes suggested networks (Android 10+), passed with the same options they were added with.
+     * The promise resolves with the `status` of the batch, like `success` or `removeInvalid`, and its `code`.
+     *
+     * @param suggestions
+     * @param promise
+     */
+    @ReactMethod
+    public void removeNetworkSuggestions(final ReadableArray suggestions, final Promise promise) {
+        updateNetworkSuggestions(suggestions, false, promise);
+    }
+
+    private void updateNetworkSuggestions(final ReadableArray suggestions, final boolean add, final Promise promise) {
+        if (!isAndroid10OrLater()) {
+            promise.reject("unsupported", "Network suggestions need Android 10+");
+            return;
+        }
+        final List<WifiNetworkSuggestion> networkSuggestions;
+        try {
+            networkSuggestions = NetworkSuggestions.fromReadableArray(suggestions);
+        } catch (IllegalArgumentException e) {
+            promise.reject("invalid options", e.getMessage());
+            return;
+        }
+        try {
+            wifiOperations.write(new Runnable() {
+                @Override
+                public void run() {
+                    final int status = add
+                            ? services.wifi().addNetworkSuggestions(networkSuggestions)
+                            : services.wifi().removeNetworkSuggestions(networkSuggestions);
+                    Log.d(TAG, String.format("%s %d network suggestions: %d", add ? "add" : "remove", networkSuggestions.size(), status));
+                    final WritableMap result = Arguments.createMap();
+                    result.putString("status", NetworkSuggestions.statusName(status));
+                    result.putInt("code", status);
+                    promise.resolve(result);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            promise.reject(BUSY_ERROR, BUSY_MESSAGE);
         }
-        promise.resolve(true);
     }
 
     /**
@@ -440,7 +1035,7 @@ public class RNWifiModule extends ReactContextBaseJavaModule {
      */
     @ReactMethod
     public void isLocationServiceOn(final Promise promise) {
-      LocationManager lm = (LocationManager) context.getSystemService(Context.LOCATION_SERVICE);
+      LocationManager lm = services.location();
       boolean gps_enabled = false;
       boolean network_enabled = false;
       if(lm==null){
@@ -457,16 +1052,171 @@ public class RNWifiModule extends ReactContextBaseJavaModule {
       promise.resolve(gps_enabled || network_enabled);
     }
     /**
-     * This method is similar to `loadWifiList` but it forcefully starts the wifi scanning on android and in the callback fetches the list
+     * This method is similar to `loadWifiList` but it forcefully starts the wifi scanning on android and in the callback fetches the list.
+     * Concurrent calls share the same scan, but the results of an earlier scan are never returned as new ones.
+     * When the scan quota is used up the scan is deferred, and the last known results are returned after 15 seconds.
      *
      * @param successCallback
      * @param errorCallback
      */
     @ReactMethod
-    public void reScanAndLoadWifiList(Callback successCallback, Callback errorCallback) {
-        WifiReceiver receiverWifi = new WifiReceiver(wifi, successCallback, errorCallback);
-        getReactApplicationContext().registerReceiver(receiverWifi, new IntentFilter(WifiManager.SCAN_RESULTS_AVAILABLE_ACTION));
-        wifi.startScan();
+    public void reScanAndLoadWifiList(final Callback successCallback, final Callback errorCallback) {
+        scanCoordinator.requestScan(0, ScanCoordinator.DEFAULT_TIMEOUT_MS, new ScanCoordinator.Listener() {
+            @Override
+            public void onScanResults(@NonNull final List<ScanResult> results, final boolean fresh, final long ageMs) {
+                try {
+                    successCallback.invoke(scanResultEncoder.toJson(results));
+                } catch (IllegalViewOperationException e) {
+                    errorCallback.invoke(e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Like `reScanAndLoadWifiList`, but resolves with `results`, an array of wifi objects, `fresh`, false when
+     * the results were cached or the scan could not complete, and `age`, the age of the results in milliseconds.
+     *
+     * @param options `maxAge`: maximum age in milliseconds of cached results to return without scanning (default 10000),
+     *                `timeout`: milliseconds to wait for the scan before returning the last known results (default 15000),
+     *                `query`: only return the matching results, like `queryWifiList`
+     * @param promise
+     */
+    @ReactMethod
+    public void reScanAndLoadWifiListNative(final ReadableMap options, final Promise promise) {
+        long maxAgeMs = ScanCoordinator.DEFAULT_MAX_AGE_MS;
+        long timeoutMs = ScanCoordinator.DEFAULT_TIMEOUT_MS;
+        ScanQuery query = null;
+        if (options != null) {
+            if (options.hasKey("maxAge") && !options.isNull("maxAge")) {
+                maxAgeMs = (long) options.getDouble("maxAge");
+            }
+            if (options.hasKey("timeout") && !options.isNull("timeout")) {
+                timeoutMs = (long) options.getDouble("timeout");
+            }
+            if (options.hasKey("query") && !options.isNull("query")) {
+                try {
+                    query = ScanQuery.fromReadableMap(options.getMap("query"));
+                } catch (IllegalArgumentException e) {
+                    promise.reject("invalid options", e.getMessage());
+                    return;
+                }
+            }
+        }
+        final ScanQuery scanQuery = query;
+        scanCoordinator.requestScan(maxAgeMs, timeoutMs, new ScanCoordinator.Listener() {
+            @Override
+            public void onScanResults(@NonNull final List<ScanResult> results, final boolean fresh, final long ageMs) {
+                final WritableMap scan = Arguments.createMap();
+                scan.putArray("results", scanResultEncoder.toWritableArray(scanQuery != null ? scanQuery.apply(results) : results));
+                scan.putBoolean("fresh", fresh);
+                scan.putDouble("age", ageMs);
+                promise.resolve(scan);
+            }
+        });
+    }
+
+    /**
+     * This method returns the counters of the scans requested with `reScanAndLoadWifiList`:
+     * `hits` served from the cache, `misses` that needed a scan, `coalesced` onto an in-flight or deferred scan,
+     * `throttled` scans deferred or refused by the system and `timeouts` of requests that got the last known results.
+     *
+     * @param promise
+     */
+    @ReactMethod
+    public void getScanStats(final Promise promise) {
+        promise.resolve(scanCoordinator.getStats());
+    }
+
+    /**
+     * Starts sending the scan results as `WifiScanResults` events, a new scan being requested every `interval`
+     * milliseconds while staying within the Android scan throttling. Calling it again updates the options.
+     *
+     * With `diff` set, only the added, removed and changed networks are sent as `WifiScanDelta` events.
+     *
+     * @param options `interval` (default 30000), `fields`, the wifi object fields to send (default
+     *                the ScanResult ones, without the parsed capabilities and the channel width),
+     *                `diff` (default false), `rssiHysteresis` in dBm (default 0) and `query`, to only send the
+     *                matching results, like `queryWifiList`
+     */
+    @ReactMethod
+    public void startScanStream(final ReadableMap options) {
+        try {
+            scanStream.start(options);
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, String.format("invalid scan stream options: %s", e.getMessage()));
+        }
+    }
+
+    /**
+     * Stops the scan results events started with `startScanStream`.
+     */
+    @ReactMethod
+    public void stopScanStream() {
+        scanStream.stop();
+    }
+
+    /**
+     * Starts recording every scan result received, whoever requested the scan, to a compact binary log in the
+     * app files, so that a long survey keeps a flat memory use. The promise resolves with the `name` and `path`
+     * of the log.
+     *
+     * @param options `name` of the log, by default from the current time; a log with the same name is replaced
+     * @param promise
+     */
+    @ReactMethod
+    public void startScanRecording(final ReadableMap options, final Promise promise) {
+        final String name = options != null && options.hasKey("name") && !options.isNull("name") ? options.getString("name") : null;
+        try {
+            scanRecorder.start(name, promise);
+        } catch (IllegalArgumentException e) {
+            promise.reject("invalid options", e.getMessage());
+        } catch (IllegalStateException e) {
+            promise.reject("recording", e.getMessage());
+        } catch (RejectedExecutionException e) {
+            promise.reject(BUSY_ERROR, BUSY_MESSAGE);
+        }
+    }
+
+    /**
+     * Stops the scan recording. The promise resolves with its `name`, `path`, the numbers of `scans`, `results`
+     * and `dropped` scans, and its size in `bytes`, or null if nothing was recorded.
+     *
+     * @param promise
+     */
+    @ReactMethod
+    public void stopScanRecording(final Promise promise) {
+        try {
+            scanRecorder.stop(promise);
+        } catch (RejectedExecutionException e) {
+            promise.reject(BUSY_ERROR, BUSY_MESSAGE);
+        }
+    }
+
+    /**
+     * Reads a page of a scan recording, which may still be running. The promise resolves with the `scans`, each
+     * with its `time` and `results`, the `cursor` to pass for the next page and `done`, true at the end of the log.
+     *
+     * @param name    the name of the log
+     * @param options `cursor` of the page, 0 by default for the first one, and `limit`, the maximum number of
+     *                scans (default 20)
+     * @param promise
+     */
+    @ReactMethod
+    public void readScanRecording(final String name, final ReadableMap options, final Promise promise) {
+        final long cursor = options != null && options.hasKey("cursor") && !options.isNull("cursor") ? (long) options.getDouble("cursor") : 0;
+        final int limit = options != null && options.hasKey("limit") && !options.isNull("limit") ? options.getInt("limit") : ScanRecorder.DEFAULT_PAGE_SIZE;
+        if (limit < 1) {
+            promise.reject("invalid options", "limit must be positive");
+            return;
+        }
+        try {
+            scanRecorder.read(name, cursor, limit, promise);
+        } catch (IllegalArgumentException e) {
+            promise.reject("invalid options", e.getMessage());
+        } catch (RejectedExecutionException e) {
+            promise.reject(BUSY_ERROR, BUSY_MESSAGE);
+        }
     }
 
     private static String longToIP(int longIp) {
@@ -486,50 +1236,6 @@ public class RNWifiModule extends ReactContextBaseJavaModule {
         return sb.toString();
     }
 
-    class WifiReceiver extends BroadcastReceiver {
-
-        private final Callback successCallback;
-        private final Callback errorCallback;
-        private final WifiManager wifi;
-
-        public WifiReceiver(final WifiManager wifi, Callback successCallback, Callback errorCallback) {
-            super();
-            this.successCallback = successCallback;
-            this.errorCallback = errorCallback;
-            this.wifi = wifi;
-        }
-
-        // This method call when number of wifi connections changed
-        public void onReceive(Context c, Intent intent) {
-            c.unregisterReceiver(this);
-            try {
-                List<ScanResult> results = this.wifi.getScanResults();
-                JSONArray wifiArray = new JSONArray();
-
-                for (ScanResult result : results) {
-                    JSONObject wifiObject = new JSONObject();
-                    if (!result.SSID.equals("")) {
-                        try {
-                            wifiObject.put("SSID", result.SSID);
-                            wifiObject.put("BSSID", result.BSSID);
-                            wifiObject.put("capabilities", result.capabilities);
-                            wifiObject.put("frequency", result.frequency);
-                            wifiObject.put("level", result.level);
-                            wifiObject.put("timestamp", result.timestamp);
-                        } catch (JSONException e) {
-                            this.errorCallback.invoke(e.getMessage());
-                            return;
-                        }
-                        wifiArray.put(wifiObject);
-                    }
-                }
-                this.successCallback.invoke(wifiArray.toString());
-            } catch (IllegalViewOperationException e) {
-                this.errorCallback.invoke(e.getMessage());
-            }
-        }
-    }
-
     private static String formatWithBackslashes(final String value) {
         return String.format("\"%s\"", value);
     }
@@ -0,0 +1,77 @@
+package com.reactlibrary.rnwifi;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the last {@link #CAPACITY} successful Android 10+ connections by SSID, least recently used first out.
+ *
+ * An entry holds the handle of the connection, so that its network can be reused while it is alive, and the BSSID
+ * it connected to, so that the next network request can be pinned to that access point once it is gone.
+ */
+class ReconnectCache {
+
+    static final int CAPACITY = 8;
+    /**
+     * Reported instead of the BSSID when the location permission is missing.
+     */
+    private static final String UNKNOWN_BSSID = "02:00:00:00:00:00";
+
+    static final class Entry {
+        final int handle;
+        @Nullable
+        final String bssid;
+
+        Entry(final int handle, @Nullable final String bssid) {
+            this.handle = handle;
+            this.bssid = bssid;
+        }
+    }
+
+    private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(CAPACITY, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    @Nullable
+    synchronized Entry get(@NonNull final String ssid) {
+        return entries.get(ssid);
+    }
+
+    /**
+     * @param bssid the BSSID of the connection, null to keep the one already known for this SSID
+     */
+    synchronized void put(@NonNull final String ssid, final int handle, @Nullable final String bssid) {
+        String pinnedBssid = bssid == null || UNKNOWN_BSSID.equals(bssid) ? null : bssid;
+        if (pinnedBssid == null) {
+            final Entry previous = entries.get(ssid);
+            pinnedBssid = previous != null ? previous.bssid : null;
+        }
+        entries.put(ssid, new Entry(handle, pinnedBssid));
+    }
+
+    /**
+     * Records the BSSID of a connection learnt after it was put, unless the SSID got another connection meanwhile.
+     */
+    synchronized void setBssid(@NonNull final String ssid, final int handle, @Nullable final String bssid) {
+        final Entry entry = entries.get(ssid);
+        if (entry != null && entry.handle == handle && bssid != null && !UNKNOWN_BSSID.equals(bssid)) {
+            entries.put(ssid, new Entry(handle, bssid));
+        }
+    }
+
+    /**
+     * Forgets the BSSID of the SSID, when the access point could not be reached with it.
+     */
+    synchronized void unpin(@NonNull final String ssid) {
+        final Entry entry = entries.get(ssid);
+        if (entry != null && entry.bssid != null) {
+            entries.put(ssid, new Entry(entry.handle, null));
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.reactlibrary.rnwifi;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.net.wifi.ScanResult;
+import android.net.wifi.WifiManager;
+import android.os.Handler;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Serves the scan requests of the module: results younger than the requested max age are returned right away,
+ * and concurrent requests share a single in-flight scan, so that they do not burn the scan quota.
+ *
+ * When the scan quota is used up, the scan is deferred until the quota allows it instead of being started
+ * blindly, and dropped again if every request timed out meanwhile. A request that times out, or whose scan is
+ * refused or never completes, gets the last known results flagged as not fresh.
+ */
+class ScanCoordinator {
+
+    private static final String TAG = "RNWifi";
+    static final long DEFAULT_MAX_AGE_MS = 10 * 1000;
+    static final long DEFAULT_TIMEOUT_MS = 15 * 1000;
+    private static final long SCAN_TIMEOUT_MS = 30 * 1000;
+
+    interface Listener {
+        /**
+         * @param results the scan results
+         * @param fresh   true if the results come from a scan that completed for this request
+         * @param ageMs   milliseconds since the results were seen
+         */
+        void onScanResults(@NonNull List<ScanResult> results, boolean fresh, long ageMs);
+    }
+
+    private final class PendingRequest implements Runnable {
+        private final Listener listener;
+
+        PendingRequest(final Listener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void run() {
+            onRequestTimeout(this);
+        }
+    }
+
+    private final SystemServices services;
+    private final ScanQuota scanQuota;
+
+    private final List<PendingRequest> pendingRequests = new ArrayList<>();
+    private boolean scanInFlight = false;
+    private boolean scanDeferred = false;
+    private List<ScanResult> cachedResults = null;
+    private long cachedAt = 0;
+
+    private int hits = 0;
+    private int misses = 0;
+    private int coalesced = 0;
+    private int throttled = 0;
+    private int timeouts = 0;
+
+    private final BroadcastReceiver receiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(final Context context, final Intent intent) {
+            onScanCompleted(intent.getBooleanExtra(WifiManager.EXTRA_RESULTS_UPDATED, true));
+        }
+    };
+
+    private final Runnable deferredScan = new Runnable() {
+        @Override
+        public void run() {
+            final List<PendingRequest> refused;
+            synchronized (ScanCoordinator.this) {
+                scanDeferred = false;
+                if (pendingRequests.isEmpty()) {
+                    return;
+                }
+                refused = startOrDeferScan();
+            }
+            deliverLastKnownResults(refused);
+        }
+    };
+
+    private final Runnable scanWatchdog = new Runnable() {
+        @Override
+        public void run() {
+            final List<PendingRequest> requests;
+            synchronized (ScanCoordinator.this) {
+                if (!scanInFlight) {
+                    return;
+                }
+                Log.d(TAG, "scan did not complete in time");
+                scanInFlight = false;
+                services.scanResults().unregisterReceiver(receiver);
+                requests = drainPendingRequests();
+            }
+            deliverLastKnownResults(requests);
+        }
+    };
+
+    ScanCoordinator(final SystemServices services, final ScanQuota scanQuota) {
+        this.services = services;
+        this.scanQuota = scanQuota;
+    }
+
+    /**
+     * Calls the listener with cached results younger than maxAgeMs, or else with the results of a new scan.
+     *
+     * @param maxAgeMs  maximum age of cached results to return without scanning
+     * @param timeoutMs milliseconds to wait for the scan before returning the last known results
+     */
+    void requestScan(final long maxAgeMs, final long timeoutMs, @NonNull final Listener listener) {
+        final List<ScanResult> results;
+        final long ageMs;
+        final List<PendingRequest> refused;
+        synchronized (this) {
+            final long now = SystemClock.elapsedRealtime();
+            if (cachedResults != null && now - cachedAt < maxAgeMs) {
+                hits++;
+                results = cachedResults;
+                ageMs = now - cachedAt;
+                refused = null;
+            } else {
+                misses++;
+                final PendingRequest request = new PendingRequest(listener);
+                pendingRequests.add(request);
+                handler().postDelayed(request, timeoutMs);
+                if (scanInFlight || scanDeferred) {
+                    coalesced++;
+                    return;
+                }
+                results = null;
+                ageMs = 0;
+                refused = startOrDeferScan();
+            }
+        }
+        if (results != null) {
+            listener.onScanResults(results, false, ageMs);
+        } else {
+            deliverLastKnownResults(refused);
+        }
+    }
+
+    /**
+     * @return the results of the last completed scan, without asking the source, empty if there is none
+     */
+    @NonNull
+    synchronized List<ScanResult> getCachedResults() {
+        return cachedResults != null ? cachedResults : Collections.<ScanResult>emptyList();
+    }
+
+    /**
+     * @return the hits, misses, coalesced, throttled and timeouts counters
+     */
+    synchronized WritableMap getStats() {
+        final WritableMap stats = Arguments.createMap();
+        stats.putInt("hits", hits);
+        stats.putInt("misses", misses);
+        stats.putInt("coalesced", coalesced);
+        stats.putInt("throttled", throttled);
+        stats.putInt("timeouts", timeouts);
+        return stats;
+    }
+
+    /**
+     * Stops the scan in progress, the pending requests getting the last known results.
+     */
+    void stop() {
+        final List<PendingRequest> requests;
+        synchronized (this) {
+            handler().removeCallbacks(deferredScan);
+            handler().removeCallbacks(scanWatchdog);
+            scanDeferred = false;
+            if (scanInFlight) {
+                scanInFlight = false;
+                services.scanResults().unregisterReceiver(receiver);
+            }
+            requests = drainPendingRequests();
+            // The results may come from another source next time
+            cachedResults = null;
+        }
+        deliverLastKnownResults(requests);
+    }
+
+    /**
+     * Starts a scan if the quota allows it, or defers it until then.
+     *
+     * @return the requests to answer with the last known results if the scan was refused, else null
+     */
+    @Nullable
+    private List<PendingRequest> startOrDeferScan() {
+        final ScanResultSource source = services.scanResults();
+        final long now = SystemClock.elapsedRealtime();
+        final long delay = source.isThrottled() ? scanQuota.delayUntilNextScan(now) : 0;
+        if (delay > 0) {
+            Log.d(TAG, String.format("scan quota used up, deferring the scan by %d ms", delay));
+            throttled++;
+            scanDeferred = true;
+            handler().postDelayed(deferredScan, delay);
+            return null;
+        }
+        source.registerReceiver(receiver);
+        if (source.isThrottled()) {
+            scanQuota.recordScan(now);
+        }
+        if (source.startScan()) {
+            scanInFlight = true;
+            handler().postDelayed(scanWatchdog, SCAN_TIMEOUT_MS);
+            return null;
+        }
+        Log.d(TAG, "startScan was not accepted");
+        source.unregisterReceiver(receiver);
+        throttled++;
+        return drainPendingRequests();
+    }
+
+    private void onScanCompleted(final boolean updated) {
+        synchronized (this) {
+            // Not a scan of ours, or the watchdog gave up on it: no need for the results
+            if (!scanInFlight) {
+                return;
+            }
+        }
+        // The results are read out of the lock, being a binder call, and the scan may be stopped meanwhile
+        final List<ScanResult> results = services.scanResults().getScanResults();
+        final List<PendingRequest> requests;
+        synchronized (this) {
+            if (!scanInFlight) {
+                return;
+            }
+            scanInFlight = false;
+            services.scanResults().unregisterReceiver(receiver);
+            handler().removeCallbacks(scanWatchdog);
+            if (updated) {
+                cachedResults = results;
+                cachedAt = SystemClock.elapsedRealtime();
+            } else {
+                throttled++;
+            }
+            requests = drainPendingRequests();
+        }
+        final long ageMs = updated ? 0 : ageOf(results);
+        for (PendingRequest request : requests) {
+            request.listener.onScanResults(results, updated, ageMs);
+        }
+    }
+
+    private void onRequestTimeout(final PendingRequest request) {
+        synchronized (this) {
+            if (!pendingRequests.remove(request)) {
+                return;
+            }
+            timeouts++;
+            if (pendingRequests.isEmpty() && scanDeferred) {
+                // Nobody is waiting anymore, do not use the quota for nothing
+                handler().removeCallbacks(deferredScan);
+                scanDeferred = false;
+            }
+        }
+        final List<ScanResult> results = services.scanResults().getScanResults();
+        request.listener.onScanResults(results, false, ageOf(results));
+    }
+
+    /**
+     * The timeouts run on the scan thread, like the receiver, as they deliver the results too.
+     */
+    private Handler handler() {
+        return services.scanHandler();
+    }
+
+    private List<PendingRequest> drainPendingRequests() {
+        final List<PendingRequest> requests = new ArrayList<>(pendingRequests);
+        pendingRequests.clear();
+        for (PendingRequest request : requests) {
+            handler().removeCallbacks(request);
+        }
+        return requests;
+    }
+
+    private void deliverLastKnownResults(@Nullable final List<PendingRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return;
+        }
+        final List<ScanResult> results = services.scanResults().getScanResults();
+        final long ageMs = ageOf(results);
+        for (PendingRequest request : requests) {
+            request.listener.onScanResults(results, false, ageMs);
+        }
+    }
+
+    /**
+     * @return milliseconds since the most recently seen result, 0 if there is none
+     */
+    private static long ageOf(final List<ScanResult> results) {
+        long newestTimestamp = 0;
+        for (ScanResult result : results) {
+            newestTimestamp = Math.max(newestTimestamp, result.timestamp);
+        }
+        if (newestTimestamp == 0) {
+            return 0;
+        }
+        // ScanResult.timestamp is in microseconds since boot
+        return Math.max(0, SystemClock.elapsedRealtime() - newestTimestamp / 1000);
+    }
+}
@@ -0,0 +1,241 @@
+package com.reactlibrary.rnwifi;
+
+import androidx.annotation.NonNull;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a scan log written by {@link ScanRecorder} page by page, keeping only the SSIDs and a buffer in memory.
+ *
+ * A record that is not completely written yet, at the end of a log being recorded, is left for the next page. The
+ * buffer grows for the records that do not fit, like the scans of thousands of results.
+ */
+class ScanLogReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int HEADER_SIZE = 4 + 1 + 8;
+
+    private final File file;
+    private final FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final List<String> ssids = new ArrayList<>();
+    private long time;
+    /**
+     * Position in the buffer of the record being read, kept when the buffer is refilled.
+     */
+    private int recordStart = 0;
+
+    private ScanLogReader(final File file, final FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+        buffer.flip();
+    }
+
+    /**
+     * @throws IOException if the file is not a scan log
+     */
+    static ScanLogReader open(@NonNull final File file) throws IOException {
+        final ScanLogReader reader = new ScanLogReader(file, new FileInputStream(file).getChannel());
+        try {
+            if (!reader.ensure(HEADER_SIZE) || reader.buffer.getInt() != ScanRecorder.MAGIC) {
+                throw new IOException(String.format("%s is not a scan log", file));
+            }
+            final byte version = reader.buffer.get();
+            if (version != ScanRecorder.VERSION) {
+                throw new IOException(String.format("unsupported scan log version %d", version));
+            }
+            reader.time = reader.buffer.getLong();
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+        return reader;
+    }
+
+    boolean isOf(@NonNull final File file) {
+        return this.file.equals(file);
+    }
+
+    /**
+     * @return the offset of the next record to read
+     */
+    long cursor() throws IOException {
+        return channel.position() - buffer.remaining();
+    }
+
+    /**
+     * Skips the records before the cursor, 0 meaning the first record.
+     *
+     * @throws IllegalArgumentException if the cursor is not at the start of a record
+     */
+    void seek(final long cursor) throws IOException {
+        while (cursor() < cursor) {
+            if (!readRecord(null)) {
+                break;
+            }
+        }
+        if (cursor != 0 && cursor() != cursor) {
+            throw new IllegalArgumentException(String.format("invalid cursor: %d", cursor));
+        }
+    }
+
+    /**
+     * @return the `scans`, each with its wall clock `time` in milliseconds and its `results`, the `cursor` of the
+     * next page and `done`, true if the end of the log was reached
+     */
+    WritableMap readPage(final int limit) throws IOException {
+        final WritableArray scans = Arguments.createArray();
+        int count = 0;
+        boolean more = true;
+        while (count < limit && more) {
+            final WritableMap[] scan = new WritableMap[1];
+            more = readRecord(scan);
+            if (scan[0] != null) {
+                scans.pushMap(scan[0]);
+                count++;
+            }
+        }
+        final WritableMap page = Arguments.createMap();
+        page.putArray("scans", scans);
+        page.putDouble("cursor", cursor());
+        page.putBoolean("done", !more);
+        return page;
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+    }
+
+    /**
+     * Reads a record, the scan being decoded into scan[0] unless scan is null.
+     *
+     * @return false if there is no complete record left
+     */
+    private boolean readRecord(final WritableMap[] scan) throws IOException {
+        recordStart = buffer.position();
+        try {
+            if (!ensure(1)) {
+                return false;
+            }
+            final byte type = buffer.get();
+            if (type == ScanRecorder.RECORD_SSID) {
+                final int id = (int) getVarint();
+                final int length = (int) getVarint();
+                if (id != ssids.size() || !ensure(length)) {
+                    throw new EOFException();
+                }
+                final byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                ssids.add(new String(bytes, ScanRecorder.UTF_8));
+                return true;
+            }
+            if (type != ScanRecorder.RECORD_SCAN) {
+                throw new IOException(String.format("unknown scan log record %d", type));
+            }
+            final long scanTime = time + getVarint();
+            final int resultCount = (int) getVarint();
+            final WritableArray results = scan != null ? Arguments.createArray() : null;
+            for (int i = 0; i < resultCount; i++) {
+                final int ssidId = (int) getVarint();
+                if (!ensure(6 + 1)) {
+                    throw new EOFException();
+                }
+                long bssid = 0;
+                for (int b = 0; b < 6; b++) {
+                    bssid = (bssid << 8) | (buffer.get() & 0xff);
+                }
+                final int level = buffer.get();
+                final int frequency = (int) getVarint();
+                if (results != null) {
+                    if (ssidId >= ssids.size()) {
+                        throw new IOException(String.format("unknown SSID id %d", ssidId));
+                    }
+                    final WritableMap result = Arguments.createMap();
+                    result.putString("SSID", ssids.get(ssidId));
+                    result.putString("BSSID", bssidToString(bssid));
+                    result.putInt("level", level);
+                    result.putInt("frequency", frequency);
+                    results.pushMap(result);
+                }
+            }
+            time = scanTime;
+            if (scan != null) {
+                scan[0] = Arguments.createMap();
+                scan[0].putDouble("time", scanTime);
+                scan[0].putArray("results", results);
+            }
+            return true;
+        } catch (EOFException e) {
+            // The record is not complete yet, read it again next time
+            buffer.position(recordStart);
+            return false;
+        }
+    }
+
+    /**
+     * @return false if the log ends before the given number of bytes
+     */
+    private boolean ensure(final int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return true;
+        }
+        final int offset = buffer.position() - recordStart;
+        if (offset + bytes > buffer.capacity() && channel.size() - channel.position() < bytes - buffer.remaining()) {
+            // Not written yet, do not grow the buffer for it
+            return false;
+        }
+        // Move the record being read to the start of the buffer, and fill the rest
+        buffer.position(recordStart);
+        if (offset + bytes > buffer.capacity()) {
+            final ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, offset + bytes));
+            larger.put(buffer);
+            buffer = larger;
+        } else {
+            buffer.compact();
+        }
+        int read = 0;
+        while (buffer.hasRemaining() && read != -1) {
+            read = channel.read(buffer);
+        }
+        buffer.flip();
+        recordStart = 0;
+        buffer.position(offset);
+        return buffer.remaining() >= bytes;
+    }
+
+    private long getVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (!ensure(1)) {
+                throw new EOFException();
+            }
+            final byte b = buffer.get();
+            value |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("invalid varint");
+    }
+
+    private static String bssidToString(final long bssid) {
+        return String.format("%02x:%02x:%02x:%02x:%02x:%02x",
+                (bssid >> 40) & 0xff, (bssid >> 32) & 0xff, (bssid >> 24) & 0xff,
+                (bssid >> 16) & 0xff, (bssid >> 8) & 0xff, bssid & 0xff);
+    }
+}
@@ -0,0 +1,157 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.wifi.ScanResult;
+
+import androidx.annotation.NonNull;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.regex.Pattern;
+
+/**
+ * Filters, deduplicates and sorts scan results before they cross the bridge, so that the payload is proportional
+ * to what JS displays rather than to the number of access points around.
+ *
+ * The results are sorted strongest first. With a `limit`, only the strongest ones are kept in a bounded heap.
+ */
+class ScanQuery {
+
+    private static final Comparator<ScanResult> WEAKEST_FIRST = new Comparator<ScanResult>() {
+        @Override
+        public int compare(final ScanResult a, final ScanResult b) {
+            return a.level < b.level ? -1 : (a.level == b.level ? 0 : 1);
+        }
+    };
+    private static final Comparator<ScanResult> STRONGEST_FIRST = Collections.reverseOrder(WEAKEST_FIRST);
+
+    private String ssidPrefix = null;
+    private Pattern ssidPattern = null;
+    private String band = null;
+    private Integer minLevel = null;
+    private int security = 0;
+    private boolean dedupBySsid = false;
+    private int limit = Integer.MAX_VALUE;
+
+    /**
+     * @param query `ssidPrefix`, `ssidPattern` (a regular expression), `band`, `minLevel` in dBm, `security`
+     *              (names of the accepted security types), `dedup` to keep only the strongest access point of
+     *              each SSID, and `limit`, the maximum number of results
+     * @throws IllegalArgumentException if an option is invalid
+     */
+    static ScanQuery fromReadableMap(@NonNull final ReadableMap query) {
+        final ScanQuery scanQuery = new ScanQuery();
+        if (query.hasKey("ssidPrefix") && !query.isNull("ssidPrefix")) {
+            scanQuery.ssidPrefix = query.getString("ssidPrefix");
+        }
+        if (query.hasKey("ssidPattern") && !query.isNull("ssidPattern")) {
+            scanQuery.ssidPattern = Pattern.compile(query.getString("ssidPattern"));
+        }
+        if (query.hasKey("band") && !query.isNull("band")) {
+            final String band = query.getString("band");
+            if (!AccessPointSelector.isBand(band)) {
+                throw new IllegalArgumentException(String.format("unknown band: %s", band));
+            }
+            scanQuery.band = band;
+        }
+        if (query.hasKey("minLevel") && !query.isNull("minLevel")) {
+            scanQuery.minLevel = query.getInt("minLevel");
+        }
+        if (query.hasKey("security") && !query.isNull("security")) {
+            scanQuery.security = securityFrom(query.getArray("security"));
+        }
+        if (query.hasKey("dedup") && !query.isNull("dedup")) {
+            scanQuery.dedupBySsid = query.getBoolean("dedup");
+        }
+        if (query.hasKey("limit") && !query.isNull("limit")) {
+            scanQuery.limit = query.getInt("limit");
+            if (scanQuery.limit < 1) {
+                throw new IllegalArgumentException("limit must be positive");
+            }
+        }
+        return scanQuery;
+    }
+
+    /**
+     * @return the matching results, strongest first
+     */
+    @NonNull
+    List<ScanResult> apply(@NonNull final List<ScanResult> results) {
+        final Map<String, ScanResult> strongestBySsid = dedupBySsid ? new HashMap<String, ScanResult>() : null;
+        final List<ScanResult> matches = new ArrayList<>();
+        for (ScanResult result : results) {
+            if (!matches(result)) {
+                continue;
+            }
+            if (strongestBySsid == null) {
+                matches.add(result);
+                continue;
+            }
+            final ScanResult strongest = strongestBySsid.get(result.SSID);
+            if (strongest == null || result.level > strongest.level) {
+                strongestBySsid.put(result.SSID, result);
+            }
+        }
+        return strongest(strongestBySsid != null ? strongestBySsid.values() : matches);
+    }
+
+    private boolean matches(final ScanResult result) {
+        if (ScanResultEncoder.isHidden(result)) {
+            return false;
+        }
+        if (minLevel != null && result.level < minLevel) {
+            return false;
+        }
+        if (band != null && !AccessPointSelector.isInBand(result.frequency, band)) {
+            return false;
+        }
+        if (ssidPrefix != null && !result.SSID.startsWith(ssidPrefix)) {
+            return false;
+        }
+        if (security != 0 && (CapabilitiesParser.parse(result.capabilities).security & security) == 0) {
+            return false;
+        }
+        return ssidPattern == null || ssidPattern.matcher(result.SSID).find();
+    }
+
+    private List<ScanResult> strongest(final Collection<ScanResult> candidates) {
+        final List<ScanResult> strongest;
+        if (candidates.size() <= limit) {
+            strongest = new ArrayList<>(candidates);
+        } else {
+            // The weakest of the strongest results so far is on top of the heap, O(n log limit)
+            final PriorityQueue<ScanResult> heap = new PriorityQueue<>(limit, WEAKEST_FIRST);
+            for (ScanResult candidate : candidates) {
+                if (heap.size() < limit) {
+                    heap.add(candidate);
+                } else if (candidate.level > heap.peek().level) {
+                    heap.poll();
+                    heap.add(candidate);
+                }
+            }
+            strongest = new ArrayList<>(heap);
+        }
+        Collections.sort(strongest, STRONGEST_FIRST);
+        return strongest;
+    }
+
+    private static int securityFrom(final ReadableArray names) {
+        int security = 0;
+        for (int i = 0; i < names.size(); i++) {
+            final int type = CapabilitiesParser.securityFromName(names.getString(i));
+            if (type == 0) {
+                throw new IllegalArgumentException(String.format("unknown security: %s", names.getString(i)));
+            }
+            security |= type;
+        }
+        return security;
+    }
+}
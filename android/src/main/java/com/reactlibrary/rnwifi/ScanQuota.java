@@ -0,0 +1,49 @@
+package com.reactlibrary.rnwifi;
+
+import android.os.Build;
+
+import java.util.Arrays;
+
+/**
+ * Keeps track of the started scans to stay within the Android 9+ scan throttling,
+ * which allows a foreground app 4 scans in a 2 minutes period.
+ */
+class ScanQuota {
+
+    static final int MAX_SCANS = 4;
+    static final long WINDOW_MS = 2 * 60 * 1000;
+
+    private final boolean enforced;
+    private final long[] scanTimes = new long[MAX_SCANS];
+    private int oldest = 0;
+
+    ScanQuota() {
+        this(Build.VERSION.SDK_INT >= Build.VERSION_CODES.P);
+    }
+
+    ScanQuota(final boolean enforced) {
+        this.enforced = enforced;
+        Arrays.fill(scanTimes, -WINDOW_MS);
+    }
+
+    /**
+     * @param now elapsed realtime in milliseconds
+     * @return 0 if a scan can be started now, otherwise the milliseconds to wait for it
+     */
+    synchronized long delayUntilNextScan(final long now) {
+        if (!enforced) {
+            return 0;
+        }
+        return Math.max(0, scanTimes[oldest] + WINDOW_MS - now);
+    }
+
+    /**
+     * Records a scan started at the given time.
+     *
+     * @param now elapsed realtime in milliseconds
+     */
+    synchronized void recordScan(final long now) {
+        scanTimes[oldest] = now;
+        oldest = (oldest + 1) % MAX_SCANS;
+    }
+}
@@ -0,0 +1,438 @@
+package com.reactlibrary.rnwifi;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.net.wifi.ScanResult;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.WritableMap;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Records every scan result received to a compact binary log, so that a survey of hours keeps a flat memory use.
+ * The log is read back in pages with {@link ScanLogReader}.
+ *
+ * The log starts with a header: the {@link #MAGIC}, the {@link #VERSION} byte and the wall clock time of the start
+ * in milliseconds. It is followed by records, each starting with its type byte:
+ * <ul>
+ * <li>{@link #RECORD_SSID}: a new SSID, with its id and its UTF-8 bytes, so that every SSID is written once,</li>
+ * <li>{@link #RECORD_SCAN}: the milliseconds since the previous scan (or the start) and the number of results,
+ * each with its SSID id, its BSSID as 6 bytes, its level as a signed byte and its frequency in MHz.</li>
+ * </ul>
+ * Ids, lengths, counts, delays and frequencies are unsigned varints. The records are written through a direct
+ * buffer and a FileChannel on a single writer thread, which also serves the reads. The buffer is written after every
+ * scan, so that a killed process only loses the scan being written.
+ */
+class ScanRecorder {
+
+    private static final String TAG = "RNWifi";
+
+    static final int MAGIC = 0x524e5753;
+    static final byte VERSION = 1;
+    static final byte RECORD_SSID = 1;
+    static final byte RECORD_SCAN = 2;
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final String DIRECTORY = "scan-recordings";
+    private static final String EXTENSION = ".rnws";
+    private static final Pattern NAME = Pattern.compile("^[A-Za-z0-9._-]+$");
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int QUEUE_CAPACITY = 16;
+    static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final class Recording {
+        final String name;
+        final File file;
+        final Map<String, Integer> ssidIds = new HashMap<>();
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        final AtomicInteger dropped = new AtomicInteger();
+        FileChannel channel;
+        long lastScanAt;
+        int scans = 0;
+        int results = 0;
+
+        Recording(final String name, final File file) {
+            this.name = name;
+            this.file = file;
+        }
+
+        void open() throws IOException {
+            final File directory = file.getParentFile();
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException(String.format("cannot create %s", directory));
+            }
+            channel = new FileOutputStream(file).getChannel();
+            lastScanAt = SystemClock.elapsedRealtime();
+            buffer.putInt(MAGIC);
+            buffer.put(VERSION);
+            buffer.putLong(System.currentTimeMillis());
+            flush();
+        }
+
+        void writeScan(final List<ScanResult> scanResults, final long at) {
+            if (channel == null) {
+                return;
+            }
+            try {
+                for (ScanResult result : scanResults) {
+                    final String ssid = ssidOf(result);
+                    if (!ssidIds.containsKey(ssid)) {
+                        final int id = ssidIds.size();
+                        ssidIds.put(ssid, id);
+                        final byte[] bytes = ssid.getBytes(UTF_8);
+                        ensure(1 + 5 + 5 + bytes.length);
+                        buffer.put(RECORD_SSID);
+                        putVarint(id);
+                        putVarint(bytes.length);
+                        buffer.put(bytes);
+                    }
+                }
+                ensure(1 + 10 + 5);
+                buffer.put(RECORD_SCAN);
+                putVarint(Math.max(0, at - lastScanAt));
+                putVarint(scanResults.size());
+                lastScanAt = at;
+                for (ScanResult result : scanResults) {
+                    ensure(5 + 6 + 1 + 5);
+                    putVarint(ssidIds.get(ssidOf(result)));
+                    final long bssid = bssidToLong(result.BSSID);
+                    for (int shift = 40; shift >= 0; shift -= 8) {
+                        buffer.put((byte) (bssid >> shift));
+                    }
+                    buffer.put((byte) Math.max(Byte.MIN_VALUE, Math.min(Byte.MAX_VALUE, result.level)));
+                    putVarint(result.frequency);
+                }
+                flush();
+                scans++;
+                results += scanResults.size();
+            } catch (IOException e) {
+                Log.w(TAG, String.format("scan recording %s failed: %s", name, e));
+                closeQuietly();
+            }
+        }
+
+        /**
+         * Writes the buffered records.
+         */
+        void flush() throws IOException {
+            if (channel == null) {
+                return;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        void close() throws IOException {
+            if (channel == null) {
+                return;
+            }
+            try {
+                flush();
+                channel.force(false);
+            } finally {
+                closeQuietly();
+            }
+        }
+
+        WritableMap toWritableMap() {
+            final WritableMap stats = Arguments.createMap();
+            stats.putString("name", name);
+            stats.putString("path", file.getAbsolutePath());
+            stats.putInt("scans", scans);
+            stats.putInt("results", results);
+            stats.putInt("dropped", dropped.get());
+            stats.putDouble("bytes", file.length());
+            return stats;
+        }
+
+        private void ensure(final int bytes) throws IOException {
+            // The log is a stream of records, so a record may span two writes
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void putVarint(long value) {
+            while ((value & ~0x7fL) != 0) {
+                buffer.put((byte) ((value & 0x7f) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        private void closeQuietly() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                Log.d(TAG, String.format("closing %s failed: %s", name, e));
+            }
+            channel = null;
+        }
+    }
+
+    private final Context context;
+    private final SystemServices services;
+    private final ThreadPoolExecutor writer;
+    private Recording recording = null;
+    private boolean attached = false;
+    // Only used on the writer thread
+    private ScanLogReader reader = null;
+
+    private final BroadcastReceiver receiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(final Context context, final Intent intent) {
+            onScanResults();
+        }
+    };
+
+    ScanRecorder(final Context context, final SystemServices services) {
+        this.context = context;
+        this.services = services;
+        writer = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY), new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull final Runnable runnable) {
+                return new Thread(runnable, "RNWifi-recorder");
+            }
+        });
+        writer.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Starts recording the scan results to a new log, resolving with its `name` and `path`.
+     *
+     * @param name the name of the log, by default from the current time; an existing log with this name is replaced
+     * @throws IllegalArgumentException if the name is invalid
+     * @throws IllegalStateException if a recording is already running
+     * @throws RejectedExecutionException if too many operations are pending
+     */
+    synchronized void start(@Nullable final String name, @NonNull final Promise promise) {
+        if (recording != null) {
+            throw new IllegalStateException(String.format("already recording %s", recording.name));
+        }
+        final String logName = name != null ? name : String.format("scans-%d", System.currentTimeMillis());
+        final Recording newRecording = new Recording(logName, fileOf(logName));
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                // A log replaced under the same name is not the one the reader went through
+                if (reader != null && reader.isOf(newRecording.file)) {
+                    closeReader();
+                }
+                try {
+                    newRecording.open();
+                } catch (IOException e) {
+                    Log.w(TAG, String.format("cannot record to %s: %s", newRecording.file, e));
+                    stopIfCurrent(newRecording);
+                    promise.reject("recordingFailed", e);
+                    return;
+                }
+                final WritableMap started = Arguments.createMap();
+                started.putString("name", newRecording.name);
+                started.putString("path", newRecording.file.getAbsolutePath());
+                promise.resolve(started);
+            }
+        });
+        recording = newRecording;
+        attach();
+    }
+
+    /**
+     * Stops the recording, resolving with its `name`, `path`, numbers of `scans`, `results` and `dropped` scans,
+     * and size in `bytes`, or null if there was no recording.
+     *
+     * @throws RejectedExecutionException if too many operations are pending, the recording going on
+     */
+    synchronized void stop(@NonNull final Promise promise) {
+        final Recording stopped = recording;
+        if (stopped == null) {
+            promise.resolve(null);
+            return;
+        }
+        // Queued after the scans already received, and before the receiver can queue any other
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    stopped.close();
+                    promise.resolve(stopped.toWritableMap());
+                } catch (IOException e) {
+                    promise.reject("recordingFailed", e);
+                }
+            }
+        });
+        detach();
+        recording = null;
+    }
+
+    /**
+     * Resolves with a page of at most `limit` scans of a log, starting at the `cursor` of the previous page, 0 for
+     * the first one. Reading the pages in order only goes once through the log.
+     *
+     * @throws IllegalArgumentException if the name is invalid
+     * @throws RejectedExecutionException if too many operations are pending
+     */
+    void read(@NonNull final String name, final long cursor, final int limit, @NonNull final Promise promise) {
+        final File file = fileOf(name);
+        // Queued after the scans already received, which are then written
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if (reader == null || !reader.isOf(file) || reader.cursor() != cursor) {
+                        closeReader();
+                        if (!file.isFile()) {
+                            promise.reject("recordingNotFound", String.format("No scan recording named %s", name));
+                            return;
+                        }
+                        reader = ScanLogReader.open(file);
+                        reader.seek(cursor);
+                    }
+                    promise.resolve(reader.readPage(limit));
+                } catch (IOException | IllegalArgumentException e) {
+                    closeReader();
+                    promise.reject("recordingFailed", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Unregisters the receiver from the current scan result source, before it changes.
+     */
+    synchronized void detach() {
+        if (attached) {
+            services.scanResults().unregisterReceiver(receiver);
+            attached = false;
+        }
+    }
+
+    /**
+     * Registers the receiver to the current scan result source while recording.
+     */
+    synchronized void attach() {
+        if (recording != null && !attached) {
+            services.scanResults().registerReceiver(receiver);
+            attached = true;
+        }
+    }
+
+    void shutdown() {
+        final Recording stopped;
+        synchronized (this) {
+            stopped = recording;
+            detach();
+            recording = null;
+        }
+        try {
+            writer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        if (stopped != null) {
+                            stopped.close();
+                        }
+                    } catch (IOException e) {
+                        Log.w(TAG, String.format("closing the scan recording failed: %s", e));
+                    }
+                    closeReader();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "the scan recording could not be closed");
+        }
+        writer.shutdown();
+    }
+
+    private void onScanResults() {
+        final Recording current;
+        synchronized (this) {
+            current = recording;
+        }
+        if (current == null) {
+            return;
+        }
+        final List<ScanResult> results = services.scanResults().getScanResults();
+        final long at = SystemClock.elapsedRealtime();
+        try {
+            writer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    current.writeScan(results, at);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            current.dropped.incrementAndGet();
+        }
+    }
+
+    private synchronized void stopIfCurrent(final Recording failed) {
+        if (recording == failed) {
+            detach();
+            recording = null;
+        }
+    }
+
+    private void closeReader() {
+        if (reader != null) {
+            reader.close();
+            reader = null;
+        }
+    }
+
+    private File fileOf(final String name) {
+        if (!NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException(String.format("invalid recording name: %s", name));
+        }
+        return new File(new File(context.getFilesDir(), DIRECTORY), name + EXTENSION);
+    }
+
+    private static String ssidOf(final ScanResult result) {
+        return result.SSID != null ? result.SSID : "";
+    }
+
+    /**
+     * @return the 48 bits of the BSSID, 0 if it is not a MAC address
+     */
+    static long bssidToLong(@Nullable final String bssid) {
+        if (bssid == null || bssid.length() != 17) {
+            return 0;
+        }
+        long value = 0;
+        for (int i = 0; i < 17; i += 3) {
+            final int high = Character.digit(bssid.charAt(i), 16);
+            final int low = Character.digit(bssid.charAt(i + 1), 16);
+            if (high < 0 || low < 0) {
+                return 0;
+            }
+            value = (value << 8) | (high << 4) | low;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,88 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.wifi.ScanResult;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the last reported scan results by BSSID to report only what changed since then:
+ * the added networks, the BSSIDs of the removed ones and the networks whose level moved more than
+ * the hysteresis away from the last reported level.
+ */
+class ScanResultDiffer {
+
+    private final int rssiHysteresis;
+    private HashMap<String, Integer> reportedLevels = new HashMap<>();
+    private HashMap<String, Integer> nextLevels = new HashMap<>();
+
+    /**
+     * @param rssiHysteresis level change in dBm that has to be exceeded to report a network as changed
+     */
+    ScanResultDiffer(final int rssiHysteresis) {
+        this.rssiHysteresis = Math.max(0, rssiHysteresis);
+    }
+
+    /**
+     * @return a map with the `added`, `removed` and `changed` arrays, or null if nothing changed
+     */
+    @Nullable
+    WritableMap diff(@NonNull final List<ScanResult> results, @NonNull final ScanResultEncoder encoder) {
+        WritableArray added = null;
+        WritableArray changed = null;
+        WritableArray removed = null;
+
+        nextLevels.clear();
+        for (ScanResult result : results) {
+            if (ScanResultEncoder.isHidden(result) || result.BSSID == null || nextLevels.containsKey(result.BSSID)) {
+                continue;
+            }
+            final Integer reportedLevel = reportedLevels.get(result.BSSID);
+            if (reportedLevel == null) {
+                if (added == null) {
+                    added = Arguments.createArray();
+                }
+                added.pushMap(encoder.toWritableMap(result));
+                nextLevels.put(result.BSSID, result.level);
+            } else if (Math.abs(result.level - reportedLevel) > rssiHysteresis) {
+                if (changed == null) {
+                    changed = Arguments.createArray();
+                }
+                changed.pushMap(encoder.toWritableMap(result));
+                nextLevels.put(result.BSSID, result.level);
+            } else {
+                // Keep the reported level so that a slow drift is reported once it exceeds the hysteresis
+                nextLevels.put(result.BSSID, reportedLevel);
+            }
+        }
+        for (Map.Entry<String, Integer> entry : reportedLevels.entrySet()) {
+            if (!nextLevels.containsKey(entry.getKey())) {
+                if (removed == null) {
+                    removed = Arguments.createArray();
+                }
+                removed.pushString(entry.getKey());
+            }
+        }
+
+        final HashMap<String, Integer> swap = reportedLevels;
+        reportedLevels = nextLevels;
+        nextLevels = swap;
+
+        if (added == null && changed == null && removed == null) {
+            return null;
+        }
+        final WritableMap delta = Arguments.createMap();
+        delta.putArray("added", added != null ? added : Arguments.createArray());
+        delta.putArray("removed", removed != null ? removed : Arguments.createArray());
+        delta.putArray("changed", changed != null ? changed : Arguments.createArray());
+        return delta;
+    }
+}
@@ -0,0 +1,332 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.wifi.ScanResult;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.List;
+
+/**
+ * Encodes scan results for JS, either as a stringified JSONArray or as a WritableArray.
+ *
+ * Results without SSID are skipped before anything is allocated for them, only the projected
+ * fields are written and the string buffer is reused across calls. By default the fields are the ones of the
+ * ScanResult, the parsed capabilities and the channel width being only written when projected, see
+ * {@link CapabilitiesParser}.
+ */
+class ScanResultEncoder {
+
+    static final int FIELD_SSID = 1;
+    static final int FIELD_BSSID = 1 << 1;
+    static final int FIELD_CAPABILITIES = 1 << 2;
+    static final int FIELD_FREQUENCY = 1 << 3;
+    static final int FIELD_LEVEL = 1 << 4;
+    static final int FIELD_TIMESTAMP = 1 << 5;
+    static final int FIELD_SECURITY = 1 << 6;
+    static final int FIELD_CIPHERS = 1 << 7;
+    static final int FIELD_WPS = 1 << 8;
+    static final int FIELD_ESS = 1 << 9;
+    static final int FIELD_IBSS = 1 << 10;
+    static final int FIELD_CHANNEL_WIDTH = 1 << 11;
+    static final int DEFAULT_FIELDS = FIELD_SSID | FIELD_BSSID | FIELD_CAPABILITIES | FIELD_FREQUENCY | FIELD_LEVEL | FIELD_TIMESTAMP;
+    /**
+     * The fields read from the parsed capabilities, see {@link CapabilitiesParser}.
+     */
+    private static final int CAPABILITIES_FIELDS = FIELD_SECURITY | FIELD_CIPHERS | FIELD_WPS | FIELD_ESS | FIELD_IBSS;
+
+    private final int fields;
+    private final StringBuilder buffer = new StringBuilder(1024);
+
+    ScanResultEncoder() {
+        this(DEFAULT_FIELDS);
+    }
+
+    /**
+     * @param fields bitmask of the FIELD_* constants to write for every result
+     */
+    ScanResultEncoder(final int fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * @param names wifi object field names, like `SSID` or `level`
+     * @return the bitmask of the matching FIELD_* constants, unknown names are ignored
+     */
+    static int fieldsFrom(@NonNull final ReadableArray names) {
+        int fields = 0;
+        for (int i = 0; i < names.size(); i++) {
+            switch (names.getString(i)) {
+                case "SSID":
+                    fields |= FIELD_SSID;
+                    break;
+                case "BSSID":
+                    fields |= FIELD_BSSID;
+                    break;
+                case "capabilities":
+                    fields |= FIELD_CAPABILITIES;
+                    break;
+                case "frequency":
+                    fields |= FIELD_FREQUENCY;
+                    break;
+                case "level":
+                    fields |= FIELD_LEVEL;
+                    break;
+                case "timestamp":
+                    fields |= FIELD_TIMESTAMP;
+                    break;
+                case "security":
+                    fields |= FIELD_SECURITY;
+                    break;
+                case "ciphers":
+                    fields |= FIELD_CIPHERS;
+                    break;
+                case "wps":
+                    fields |= FIELD_WPS;
+                    break;
+                case "ess":
+                    fields |= FIELD_ESS;
+                    break;
+                case "ibss":
+                    fields |= FIELD_IBSS;
+                    break;
+                case "channelWidth":
+                    fields |= FIELD_CHANNEL_WIDTH;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * @return true if the result has no SSID and should not be reported
+     */
+    static boolean isHidden(@NonNull final ScanResult result) {
+        return result.SSID == null || result.SSID.isEmpty();
+    }
+
+    /**
+     * @return the results as a stringified JSONArray
+     */
+    synchronized String toJson(@NonNull final List<ScanResult> results) {
+        buffer.setLength(0);
+        buffer.append('[');
+        boolean first = true;
+        for (ScanResult result : results) {
+            if (isHidden(result)) {
+                continue;
+            }
+            if (!first) {
+                buffer.append(',');
+            }
+            first = false;
+            appendJson(result);
+        }
+        buffer.append(']');
+        return buffer.toString();
+    }
+
+    /**
+     * @return the results as an array of maps, ready to be sent over the bridge
+     */
+    WritableArray toWritableArray(@NonNull final List<ScanResult> results) {
+        final WritableArray wifiArray = Arguments.createArray();
+        for (ScanResult result : results) {
+            if (!isHidden(result)) {
+                wifiArray.pushMap(toWritableMap(result));
+            }
+        }
+        return wifiArray;
+    }
+
+    WritableMap toWritableMap(@NonNull final ScanResult result) {
+        final WritableMap wifiObject = Arguments.createMap();
+        if ((fields & FIELD_SSID) != 0) {
+            wifiObject.putString("SSID", result.SSID);
+        }
+        if ((fields & FIELD_BSSID) != 0) {
+            wifiObject.putString("BSSID", result.BSSID);
+        }
+        if ((fields & FIELD_CAPABILITIES) != 0) {
+            wifiObject.putString("capabilities", result.capabilities);
+        }
+        if ((fields & FIELD_FREQUENCY) != 0) {
+            wifiObject.putInt("frequency", result.frequency);
+        }
+        if ((fields & FIELD_LEVEL) != 0) {
+            wifiObject.putInt("level", result.level);
+        }
+        if ((fields & FIELD_TIMESTAMP) != 0) {
+            wifiObject.putDouble("timestamp", result.timestamp);
+        }
+        if ((fields & CAPABILITIES_FIELDS) != 0) {
+            final CapabilitiesParser.Capabilities capabilities = CapabilitiesParser.parse(result.capabilities);
+            if ((fields & FIELD_SECURITY) != 0) {
+                wifiObject.putArray("security", toWritableArray(capabilities.securityNames));
+            }
+            if ((fields & FIELD_CIPHERS) != 0) {
+                wifiObject.putArray("ciphers", toWritableArray(capabilities.cipherNames));
+            }
+            if ((fields & FIELD_WPS) != 0) {
+                wifiObject.putBoolean("wps", capabilities.wps);
+            }
+            if ((fields & FIELD_ESS) != 0) {
+                wifiObject.putBoolean("ess", capabilities.ess);
+            }
+            if ((fields & FIELD_IBSS) != 0) {
+                wifiObject.putBoolean("ibss", capabilities.ibss);
+            }
+        }
+        if ((fields & FIELD_CHANNEL_WIDTH) != 0 && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            wifiObject.putInt("channelWidth", channelWidthMhz(result));
+        }
+        return wifiObject;
+    }
+
+    private void appendJson(final ScanResult result) {
+        buffer.append('{');
+        boolean first = true;
+        if ((fields & FIELD_SSID) != 0) {
+            first = appendString("SSID", result.SSID, first);
+        }
+        if ((fields & FIELD_BSSID) != 0) {
+            first = appendString("BSSID", result.BSSID, first);
+        }
+        if ((fields & FIELD_CAPABILITIES) != 0) {
+            first = appendString("capabilities", result.capabilities, first);
+        }
+        if ((fields & FIELD_FREQUENCY) != 0) {
+            first = appendNumber("frequency", result.frequency, first);
+        }
+        if ((fields & FIELD_LEVEL) != 0) {
+            first = appendNumber("level", result.level, first);
+        }
+        if ((fields & FIELD_TIMESTAMP) != 0) {
+            first = appendNumber("timestamp", result.timestamp, first);
+        }
+        if ((fields & CAPABILITIES_FIELDS) != 0) {
+            final CapabilitiesParser.Capabilities capabilities = CapabilitiesParser.parse(result.capabilities);
+            if ((fields & FIELD_SECURITY) != 0) {
+                first = appendNames("security", capabilities.securityNames, first);
+            }
+            if ((fields & FIELD_CIPHERS) != 0) {
+                first = appendNames("ciphers", capabilities.cipherNames, first);
+            }
+            if ((fields & FIELD_WPS) != 0) {
+                first = appendBoolean("wps", capabilities.wps, first);
+            }
+            if ((fields & FIELD_ESS) != 0) {
+                first = appendBoolean("ess", capabilities.ess, first);
+            }
+            if ((fields & FIELD_IBSS) != 0) {
+                first = appendBoolean("ibss", capabilities.ibss, first);
+            }
+        }
+        if ((fields & FIELD_CHANNEL_WIDTH) != 0 && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            appendNumber("channelWidth", channelWidthMhz(result), first);
+        }
+        buffer.append('}');
+    }
+
+    private static WritableArray toWritableArray(final String[] names) {
+        final WritableArray array = Arguments.createArray();
+        for (String name : names) {
+            array.pushString(name);
+        }
+        return array;
+    }
+
+    /**
+     * @return the channel width in MHz, 80+80 MHz being reported as 160
+     */
+    private static int channelWidthMhz(final ScanResult result) {
+        switch (result.channelWidth) {
+            case ScanResult.CHANNEL_WIDTH_40MHZ:
+                return 40;
+            case ScanResult.CHANNEL_WIDTH_80MHZ:
+                return 80;
+            case ScanResult.CHANNEL_WIDTH_160MHZ:
+            case ScanResult.CHANNEL_WIDTH_80MHZ_PLUS_MHZ:
+                return 160;
+            default:
+                return 20;
+        }
+    }
+
+    private boolean appendBoolean(final String name, final boolean value, final boolean first) {
+        appendName(name, first);
+        buffer.append(value);
+        return false;
+    }
+
+    /**
+     * Only for names that need no escaping.
+     */
+    private boolean appendNames(final String name, final String[] values, final boolean first) {
+        appendName(name, first);
+        buffer.append('[');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            buffer.append('"').append(values[i]).append('"');
+        }
+        buffer.append(']');
+        return false;
+    }
+
+    private boolean appendNumber(final String name, final long value, final boolean first) {
+        appendName(name, first);
+        buffer.append(value);
+        return false;
+    }
+
+    private boolean appendString(final String name, final String value, final boolean first) {
+        // Like JSONObject, null values are left out
+        if (value == null) {
+            return first;
+        }
+        appendName(name, first);
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                case '\\':
+                    buffer.append('\\').append(c);
+                    break;
+                case '\n':
+                    buffer.append("\\n");
+                    break;
+                case '\r':
+                    buffer.append("\\r");
+                    break;
+                case '\t':
+                    buffer.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        buffer.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        buffer.append(c);
+                    }
+            }
+        }
+        buffer.append('"');
+        return false;
+    }
+
+    private void appendName(final String name, final boolean first) {
+        if (!first) {
+            buffer.append(',');
+        }
+        buffer.append('"').append(name).append("\":");
+    }
+}
@@ -0,0 +1,35 @@
+package com.reactlibrary.rnwifi;
+
+import android.content.BroadcastReceiver;
+import android.net.wifi.ScanResult;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+
+/**
+ * Where the scan pipeline gets its scan results from: the WifiManager, or a fake one in the tests.
+ */
+interface ScanResultSource {
+
+    @NonNull
+    List<ScanResult> getScanResults();
+
+    /**
+     * @return false if the scan was not accepted, else its completion is signalled to the registered receivers
+     */
+    boolean startScan();
+
+    /**
+     * Registers a receiver of the SCAN_RESULTS_AVAILABLE_ACTION intents, sent whenever new results are available.
+     * The receiver is called on the scan thread, see {@link SystemServices#scanHandler()}.
+     */
+    void registerReceiver(@NonNull BroadcastReceiver receiver);
+
+    void unregisterReceiver(@NonNull BroadcastReceiver receiver);
+
+    /**
+     * @return true if the scans are subject to the platform scan quota, see {@link ScanQuota}
+     */
+    boolean isThrottled();
+}
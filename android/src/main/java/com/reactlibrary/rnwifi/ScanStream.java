@@ -0,0 +1,168 @@
+package com.reactlibrary.rnwifi;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.net.wifi.ScanResult;
+import android.os.Handler;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.List;
+
+/**
+ * Keeps a single SCAN_RESULTS_AVAILABLE_ACTION receiver registered and sends every scan result
+ * to JS as a {@link RNWifiEvents#SCAN_RESULTS} event.
+ *
+ * A new scan is requested every `interval` milliseconds, deferred when the scan quota is used up.
+ * Scans started by the system or by other apps are forwarded as well. The results are read and encoded on the
+ * scan thread, see {@link SystemServices#scanHandler()}.
+ *
+ * With the `diff` option, only the changes since the previous event are sent as a
+ * {@link RNWifiEvents#SCAN_DELTA} event, see {@link ScanResultDiffer}.
+ */
+class ScanStream {
+
+    private static final String TAG = "RNWifi";
+    static final long DEFAULT_INTERVAL_MS = 30 * 1000;
+    static final long MIN_INTERVAL_MS = 1000;
+
+    private final ReactApplicationContext context;
+    private final SystemServices services;
+    private final ScanQuota scanQuota;
+
+    private ScanResultEncoder encoder = new ScanResultEncoder();
+    private ScanResultDiffer differ = null;
+    private ScanQuery query = null;
+    private long intervalMs = DEFAULT_INTERVAL_MS;
+    private boolean running = false;
+
+    private final BroadcastReceiver receiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(final Context context, final Intent intent) {
+            emitResults();
+        }
+    };
+
+    private final Runnable emitTask = new Runnable() {
+        @Override
+        public void run() {
+            emitResults();
+        }
+    };
+
+    private final Runnable scanTask = new Runnable() {
+        @Override
+        public void run() {
+            requestScan();
+        }
+    };
+
+    ScanStream(final ReactApplicationContext context, final SystemServices services, final ScanQuota scanQuota) {
+        this.context = context;
+        this.services = services;
+        this.scanQuota = scanQuota;
+    }
+
+    /**
+     * Starts the stream, or updates its options when it is already running.
+     *
+     * @param options `interval`: minimum milliseconds between two requested scans,
+     *                `fields`: names of the wifi object fields to send,
+     *                `diff`: send only the changes since the previous event,
+     *                `rssiHysteresis`: level change in dBm to exceed for a network to be sent as changed,
+     *                `query`: send only the matching results, see {@link ScanQuery}.
+     * @throws IllegalArgumentException if the query is invalid
+     */
+    synchronized void start(@Nullable final ReadableMap options) {
+        // Parsed first, so that an invalid query leaves the stream as it was
+        final ScanQuery newQuery = options != null && options.hasKey("query") && !options.isNull("query")
+                ? ScanQuery.fromReadableMap(options.getMap("query")) : null;
+        intervalMs = DEFAULT_INTERVAL_MS;
+        encoder = new ScanResultEncoder();
+        differ = null;
+        query = newQuery;
+        if (options != null) {
+            if (options.hasKey("interval") && !options.isNull("interval")) {
+                intervalMs = Math.max(MIN_INTERVAL_MS, (long) options.getDouble("interval"));
+            }
+            if (options.hasKey("fields") && !options.isNull("fields")) {
+                encoder = new ScanResultEncoder(ScanResultEncoder.fieldsFrom(options.getArray("fields")));
+            }
+            if (options.hasKey("diff") && options.getBoolean("diff")) {
+                final int rssiHysteresis = options.hasKey("rssiHysteresis") && !options.isNull("rssiHysteresis")
+                        ? options.getInt("rssiHysteresis") : 0;
+                differ = new ScanResultDiffer(rssiHysteresis);
+            }
+        }
+
+        handler().removeCallbacks(emitTask);
+        handler().removeCallbacks(scanTask);
+        if (!running) {
+            services.scanResults().registerReceiver(receiver);
+            running = true;
+        }
+        // Send the last known results right away, the first scan may take a few seconds
+        handler().post(emitTask);
+        handler().post(scanTask);
+    }
+
+    synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        handler().removeCallbacks(emitTask);
+        handler().removeCallbacks(scanTask);
+        services.scanResults().unregisterReceiver(receiver);
+    }
+
+    private synchronized void emitResults() {
+        if (!running) {
+            return;
+        }
+        List<ScanResult> results = services.scanResults().getScanResults();
+        if (query != null) {
+            results = query.apply(results);
+        }
+        if (differ == null) {
+            RNWifiEvents.emit(context, RNWifiEvents.SCAN_RESULTS, encoder.toWritableArray(results));
+            return;
+        }
+        final WritableMap delta = differ.diff(results, encoder);
+        if (delta != null) {
+            RNWifiEvents.emit(context, RNWifiEvents.SCAN_DELTA, delta);
+        }
+    }
+
+    private Handler handler() {
+        return services.scanHandler();
+    }
+
+    private synchronized void requestScan() {
+        if (!running) {
+            return;
+        }
+        final ScanResultSource source = services.scanResults();
+        final long now = SystemClock.elapsedRealtime();
+        final long delay = source.isThrottled() ? scanQuota.delayUntilNextScan(now) : 0;
+        if (delay > 0) {
+            Log.d(TAG, String.format("scan quota used up, next scan in %d ms", delay));
+            handler().postDelayed(scanTask, delay);
+            return;
+        }
+        if (source.isThrottled()) {
+            scanQuota.recordScan(now);
+        }
+        if (!source.startScan()) {
+            Log.d(TAG, "startScan was not accepted");
+        }
+        handler().postDelayed(scanTask, intervalMs);
+    }
+}
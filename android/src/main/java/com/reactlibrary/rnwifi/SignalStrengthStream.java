@@ -0,0 +1,198 @@
+package com.reactlibrary.rnwifi;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkRequest;
+import android.net.wifi.WifiManager;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+
+/**
+ * Sends the signal strength and link bandwidth of the current wifi connection as
+ * {@link RNWifiEvents#SIGNAL_STRENGTH} events, from the RSSI_CHANGED broadcast and the capabilities of the wifi
+ * network, instead of having JS poll for them.
+ *
+ * An event is only sent when the values moved at least the configured thresholds away from the last sent ones,
+ * and at most once per debounce period, the latest values being sent at the end of the period.
+ */
+class SignalStrengthStream {
+
+    static final long DEFAULT_DEBOUNCE_MS = 1000;
+    static final int DEFAULT_RSSI_THRESHOLD = 1;
+    static final int DEFAULT_BANDWIDTH_THRESHOLD_KBPS = 1000;
+
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private final ReactApplicationContext context;
+    private final SystemServices services;
+    private final ConnectionSnapshotCache connectionSnapshotCache;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    private long debounceMs = DEFAULT_DEBOUNCE_MS;
+    private int rssiThreshold = DEFAULT_RSSI_THRESHOLD;
+    private int bandwidthThresholdKbps = DEFAULT_BANDWIDTH_THRESHOLD_KBPS;
+    private boolean running = false;
+
+    private int rssi = UNKNOWN;
+    private int downstreamKbps = UNKNOWN;
+    private int upstreamKbps = UNKNOWN;
+    private int sentRssi = UNKNOWN;
+    private int sentDownstreamKbps = UNKNOWN;
+    private long sentAt = 0;
+    private boolean emitScheduled = false;
+
+    private final BroadcastReceiver receiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(final Context context, final Intent intent) {
+            connectionSnapshotCache.invalidate();
+            onSignalChanged(intent.getIntExtra(WifiManager.EXTRA_NEW_RSSI, UNKNOWN), UNKNOWN, UNKNOWN);
+        }
+    };
+
+    private final ConnectivityManager.NetworkCallback networkCallback = new ConnectivityManager.NetworkCallback() {
+        @Override
+        public void onCapabilitiesChanged(@NonNull final Network network, @NonNull final NetworkCapabilities networkCapabilities) {
+            final int signalStrength = Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q
+                    ? networkCapabilities.getSignalStrength() : UNKNOWN;
+            onSignalChanged(signalStrength, networkCapabilities.getLinkDownstreamBandwidthKbps(),
+                    networkCapabilities.getLinkUpstreamBandwidthKbps());
+        }
+    };
+
+    private final Runnable emitTask = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (SignalStrengthStream.this) {
+                emitScheduled = false;
+                if (running && hasChangedEnough()) {
+                    emit();
+                }
+            }
+        }
+    };
+
+    SignalStrengthStream(final ReactApplicationContext context, final SystemServices services, final ConnectionSnapshotCache connectionSnapshotCache) {
+        this.context = context;
+        this.services = services;
+        this.connectionSnapshotCache = connectionSnapshotCache;
+    }
+
+    /**
+     * Starts the stream, or updates its options when it is already running.
+     *
+     * @param options `debounce`: minimum milliseconds between two events,
+     *                `rssiThreshold`: RSSI change in dBm needed to send an event,
+     *                `bandwidthThreshold`: downstream bandwidth change in Kbps needed to send an event.
+     */
+    synchronized void start(@Nullable final ReadableMap options) {
+        debounceMs = DEFAULT_DEBOUNCE_MS;
+        rssiThreshold = DEFAULT_RSSI_THRESHOLD;
+        bandwidthThresholdKbps = DEFAULT_BANDWIDTH_THRESHOLD_KBPS;
+        if (options != null) {
+            if (options.hasKey("debounce") && !options.isNull("debounce")) {
+                debounceMs = Math.max(0, (long) options.getDouble("debounce"));
+            }
+            if (options.hasKey("rssiThreshold") && !options.isNull("rssiThreshold")) {
+                rssiThreshold = Math.max(1, options.getInt("rssiThreshold"));
+            }
+            if (options.hasKey("bandwidthThreshold") && !options.isNull("bandwidthThreshold")) {
+                bandwidthThresholdKbps = Math.max(1, options.getInt("bandwidthThreshold"));
+            }
+        }
+        if (running) {
+            return;
+        }
+        running = true;
+        context.registerReceiver(receiver, new IntentFilter(WifiManager.RSSI_CHANGED_ACTION));
+        final ConnectivityManager connectivityManager = services.connectivity();
+        if (connectivityManager != null) {
+            final NetworkRequest request = new NetworkRequest.Builder()
+                    .addTransportType(NetworkCapabilities.TRANSPORT_WIFI)
+                    .build();
+            connectivityManager.registerNetworkCallback(request, networkCallback);
+        }
+        // Start from the current signal strength, the broadcast is only sent when it changes
+        sentRssi = UNKNOWN;
+        sentDownstreamKbps = UNKNOWN;
+        onSignalChanged(connectionSnapshotCache.get().rssi, UNKNOWN, UNKNOWN);
+    }
+
+    synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        handler.removeCallbacks(emitTask);
+        emitScheduled = false;
+        context.unregisterReceiver(receiver);
+        final ConnectivityManager connectivityManager = services.connectivity();
+        if (connectivityManager != null) {
+            connectivityManager.unregisterNetworkCallback(networkCallback);
+        }
+    }
+
+    private synchronized void onSignalChanged(final int newRssi, final int newDownstreamKbps, final int newUpstreamKbps) {
+        if (!running) {
+            return;
+        }
+        if (newRssi != UNKNOWN) {
+            rssi = newRssi;
+        }
+        if (newDownstreamKbps != UNKNOWN) {
+            downstreamKbps = newDownstreamKbps;
+        }
+        if (newUpstreamKbps != UNKNOWN) {
+            upstreamKbps = newUpstreamKbps;
+        }
+        if (emitScheduled || !hasChangedEnough()) {
+            return;
+        }
+        final long sinceSent = SystemClock.elapsedRealtime() - sentAt;
+        if (sinceSent >= debounceMs) {
+            emit();
+        } else {
+            emitScheduled = true;
+            handler.postDelayed(emitTask, debounceMs - sinceSent);
+        }
+    }
+
+    private boolean hasChangedEnough() {
+        return (rssi != UNKNOWN && (sentRssi == UNKNOWN || Math.abs(rssi - sentRssi) >= rssiThreshold))
+                || (downstreamKbps != UNKNOWN && (sentDownstreamKbps == UNKNOWN
+                || Math.abs(downstreamKbps - sentDownstreamKbps) >= bandwidthThresholdKbps));
+    }
+
+    private void emit() {
+        sentRssi = rssi;
+        sentDownstreamKbps = downstreamKbps;
+        sentAt = SystemClock.elapsedRealtime();
+        final WritableMap event = Arguments.createMap();
+        putValue(event, "signalStrength", rssi);
+        putValue(event, "linkDownstreamBandwidthKbps", downstreamKbps);
+        putValue(event, "linkUpstreamBandwidthKbps", upstreamKbps);
+        RNWifiEvents.emit(context, RNWifiEvents.SIGNAL_STRENGTH, event);
+    }
+
+    private static void putValue(final WritableMap map, final String key, final int value) {
+        if (value == UNKNOWN) {
+            map.putNull(key);
+        } else {
+            map.putInt(key, value);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.reactlibrary.rnwifi;
+
+import android.content.Context;
+import android.location.LocationManager;
+import android.net.ConnectivityManager;
+import android.net.wifi.WifiManager;
+import android.os.Handler;
+import android.os.HandlerThread;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Holds the system services used by the module, each one fetched on first use and then reused,
+ * so that creating the module at bridge startup does not look up any service.
+ *
+ * Every service of the module is fetched here, so a subclass can hand it fake services instead.
+ *
+ * It also holds the thread the scan results are received and encoded on, so that thousands of results do not
+ * hold up the main thread.
+ */
+class SystemServices {
+
+    private final Context context;
+    private WifiManager wifiManager;
+    private ConnectivityManager connectivityManager;
+    private LocationManager locationManager;
+    private ScanResultSource scanResultSource;
+    private HandlerThread scanThread;
+    private Handler scanHandler;
+
+    SystemServices(@NonNull final Context context) {
+        // The application context avoids leaking the WifiManager before Android N
+        this.context = context.getApplicationContext();
+    }
+
+    synchronized WifiManager wifi() {
+        if (wifiManager == null) {
+            wifiManager = (WifiManager) context.getSystemService(Context.WIFI_SERVICE);
+        }
+        return wifiManager;
+    }
+
+    @Nullable
+    synchronized ConnectivityManager connectivity() {
+        if (connectivityManager == null) {
+            connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        }
+        return connectivityManager;
+    }
+
+    /**
+     * @return the source of the scan results, the WifiManager unless another one was set
+     */
+    synchronized ScanResultSource scanResults() {
+        if (scanResultSource == null) {
+            scanResultSource = new WifiScanResultSource(context, this);
+        }
+        return scanResultSource;
+    }
+
+    /**
+     * @param source the source of the scan results, null for the WifiManager
+     */
+    synchronized void setScanResults(@Nullable final ScanResultSource source) {
+        scanResultSource = source;
+    }
+
+    /**
+     * @return the handler of the scan thread, started on first use
+     */
+    synchronized Handler scanHandler() {
+        if (scanHandler == null) {
+            scanThread = new HandlerThread("RNWifi-scans");
+            scanThread.start();
+            scanHandler = new Handler(scanThread.getLooper());
+        }
+        return scanHandler;
+    }
+
+    /**
+     * Stops the scan thread once the messages already due are handled.
+     */
+    synchronized void quitScanThread() {
+        if (scanThread != null) {
+            scanThread.quitSafely();
+            scanThread = null;
+            scanHandler = null;
+        }
+    }
+
+    @Nullable
+    synchronized LocationManager location() {
+        if (locationManager == null) {
+            locationManager = (LocationManager) context.getSystemService(Context.LOCATION_SERVICE);
+        }
+        return locationManager;
+    }
+}
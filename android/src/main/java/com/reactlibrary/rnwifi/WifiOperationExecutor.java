@@ -0,0 +1,90 @@
+package com.reactlibrary.rnwifi;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Runs the blocking WifiManager calls off the native modules thread, so that they do not hold up every other
+ * native module. Read-only queries run concurrently, while mutating operations run one at a time and never
+ * together with a query.
+ *
+ * The mutating operations have their own thread, so a waiting one never takes a thread from the queries, and the
+ * lock is fair, so the queries that come after it wait for it instead of starving it.
+ *
+ * The queues are bounded: when one is full, the operation is rejected instead of piling up.
+ */
+class WifiOperationExecutor {
+
+    private static final int THREADS = 3;
+    private static final int QUEUE_CAPACITY = 16;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+    private final ThreadPoolExecutor readExecutor;
+    private final ThreadPoolExecutor writeExecutor;
+
+    WifiOperationExecutor() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ThreadFactory threadFactory = new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull final Runnable runnable) {
+                return new Thread(runnable, "RNWifi-operation-" + threadCount.incrementAndGet());
+            }
+        };
+        readExecutor = newExecutor(THREADS, threadFactory);
+        writeExecutor = newExecutor(1, threadFactory);
+    }
+
+    /**
+     * Runs a read-only query, concurrently with the other queries.
+     *
+     * @throws RejectedExecutionException if the queue is full
+     */
+    void read(@NonNull final Runnable operation) {
+        execute(readExecutor, lock.readLock(), operation);
+    }
+
+    /**
+     * Runs a mutating operation, alone.
+     *
+     * @throws RejectedExecutionException if the queue is full
+     */
+    void write(@NonNull final Runnable operation) {
+        execute(writeExecutor, lock.writeLock(), operation);
+    }
+
+    void shutdown() {
+        readExecutor.shutdownNow();
+        writeExecutor.shutdownNow();
+    }
+
+    private static ThreadPoolExecutor newExecutor(final int threads, final ThreadFactory threadFactory) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY), threadFactory);
+        // Threads are only started when needed and stopped again when idle
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static void execute(final ThreadPoolExecutor executor, final Lock operationLock, final Runnable operation) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                operationLock.lock();
+                try {
+                    operation.run();
+                } finally {
+                    operationLock.unlock();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package com.reactlibrary.rnwifi;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.IntentFilter;
+import android.net.wifi.ScanResult;
+import android.net.wifi.WifiManager;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+
+/**
+ * The scan results of the WifiManager.
+ */
+class WifiScanResultSource implements ScanResultSource {
+
+    private final Context context;
+    private final SystemServices services;
+
+    WifiScanResultSource(final Context context, final SystemServices services) {
+        this.context = context;
+        this.services = services;
+    }
+
+    @NonNull
+    @Override
+    public List<ScanResult> getScanResults() {
+        return services.wifi().getScanResults();
+    }
+
+    @Override
+    public boolean startScan() {
+        return services.wifi().startScan();
+    }
+
+    @Override
+    public void registerReceiver(@NonNull final BroadcastReceiver receiver) {
+        context.registerReceiver(receiver, new IntentFilter(WifiManager.SCAN_RESULTS_AVAILABLE_ACTION), null,
+                services.scanHandler());
+    }
+
+    @Override
+    public void unregisterReceiver(@NonNull final BroadcastReceiver receiver) {
+        context.unregisterReceiver(receiver);
+    }
+
+    @Override
+    public boolean isThrottled() {
+        return true;
+    }
+}
@@ -0,0 +1,83 @@
+package com.reactlibrary.rnwifi;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+/**
+ * Runs an operation in a loop after warming it up, and reports the time and the bytes allocated per operation.
+ *
+ * The bytes are those allocated by the calling thread, as counted by the JVM, so the operation must not hand
+ * its work to another thread. Every result of the operation is consumed, so that the JIT cannot skip it.
+ */
+final class BenchmarkRunner {
+
+    interface Operation {
+        Object run() throws Exception;
+    }
+
+    static final class Result {
+        final String name;
+        final double nanosPerOp;
+        /**
+         * -1 if the JVM does not count the allocated bytes.
+         */
+        final double bytesPerOp;
+
+        private Result(final String name, final double nanosPerOp, final double bytesPerOp) {
+            this.name = name;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        double opsPerSecond() {
+            return 1e9 / nanosPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-48s %12.1f us/op %12.0f B/op", name, nanosPerOp / 1000, bytesPerOp);
+        }
+    }
+
+    private static int sink;
+
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Runs the operation warmups times, then iterations times measured, and prints the result.
+     */
+    static Result run(final String name, final int warmups, final int iterations, final Operation operation) throws Exception {
+        for (int i = 0; i < warmups; i++) {
+            consume(operation.run());
+        }
+        final long startBytes = allocatedBytes();
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            consume(operation.run());
+        }
+        final long elapsed = System.nanoTime() - start;
+        final long endBytes = allocatedBytes();
+        final double bytesPerOp = startBytes < 0 || endBytes < 0 ? -1 : (double) (endBytes - startBytes) / iterations;
+        final Result result = new Result(name, (double) elapsed / iterations, bytesPerOp);
+        System.out.println(result);
+        return result;
+    }
+
+    private static void consume(final Object value) {
+        sink ^= System.identityHashCode(value);
+    }
+
+    private static long allocatedBytes() {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        final com.sun.management.ThreadMXBean counting = (com.sun.management.ThreadMXBean) threads;
+        if (!counting.isThreadAllocatedMemorySupported() || !counting.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        return counting.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
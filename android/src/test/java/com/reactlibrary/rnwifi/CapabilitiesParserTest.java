@@ -0,0 +1,107 @@
+package com.reactlibrary.rnwifi;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CapabilitiesParserTest {
+
+    @Test
+    public void parsesAWpa2PersonalNetwork() {
+        final CapabilitiesParser.Capabilities capabilities =
+                CapabilitiesParser.parse("[WPA2-PSK-CCMP][RSN-PSK-CCMP][ESS][WPS]");
+
+        assertEquals(CapabilitiesParser.SECURITY_WPA2, capabilities.security);
+        assertEquals(CapabilitiesParser.CIPHER_CCMP, capabilities.ciphers);
+        assertTrue(capabilities.wps);
+        assertTrue(capabilities.ess);
+        assertFalse(capabilities.ibss);
+        assertArrayEquals(new String[]{"wpa2"}, capabilities.securityNames);
+        assertArrayEquals(new String[]{"ccmp"}, capabilities.cipherNames);
+    }
+
+    @Test
+    public void parsesAMixedWpaNetwork() {
+        final CapabilitiesParser.Capabilities capabilities =
+                CapabilitiesParser.parse("[WPA-PSK-TKIP][WPA2-PSK-CCMP+TKIP][ESS]");
+
+        assertEquals(CapabilitiesParser.SECURITY_WPA | CapabilitiesParser.SECURITY_WPA2, capabilities.security);
+        assertEquals(CapabilitiesParser.CIPHER_CCMP | CapabilitiesParser.CIPHER_TKIP, capabilities.ciphers);
+        assertArrayEquals(new String[]{"wpa", "wpa2"}, capabilities.securityNames);
+        assertArrayEquals(new String[]{"ccmp", "tkip"}, capabilities.cipherNames);
+    }
+
+    @Test
+    public void parsesEveryKeyManagementOfATransitionNetwork() {
+        assertEquals(CapabilitiesParser.SECURITY_WPA2 | CapabilitiesParser.SECURITY_WPA3,
+                CapabilitiesParser.parse("[RSN-PSK+SAE-CCMP][ESS]").security);
+        assertEquals(CapabilitiesParser.SECURITY_WPA2 | CapabilitiesParser.SECURITY_WPA3,
+                CapabilitiesParser.parse("[RSN-SAE+PSK-CCMP][ESS]").security);
+        assertEquals(CapabilitiesParser.SECURITY_WPA2,
+                CapabilitiesParser.parse("[RSN-PSK+FT/PSK-CCMP][ESS]").security);
+        assertEquals(CapabilitiesParser.SECURITY_WPA3 | CapabilitiesParser.SECURITY_EAP,
+                CapabilitiesParser.parse("[RSN-SAE+EAP/SHA256-CCMP][ESS]").security);
+    }
+
+    @Test
+    public void parsesWpa3OweAndEnterpriseNetworks() {
+        assertEquals(CapabilitiesParser.SECURITY_WPA3, CapabilitiesParser.parse("[RSN-SAE-CCMP][ESS]").security);
+        assertEquals(CapabilitiesParser.SECURITY_OWE, CapabilitiesParser.parse("[RSN-OWE-CCMP][ESS]").security);
+        assertEquals(CapabilitiesParser.SECURITY_EAP, CapabilitiesParser.parse("[WPA2-EAP-CCMP][RSN-EAP-CCMP][ESS]").security);
+        assertEquals(CapabilitiesParser.SECURITY_EAP,
+                CapabilitiesParser.parse("[RSN-EAP_SUITE_B_192-GCMP-256][ESS]").security);
+        assertEquals(CapabilitiesParser.CIPHER_GCMP,
+                CapabilitiesParser.parse("[RSN-EAP_SUITE_B_192-GCMP-256][ESS]").ciphers);
+    }
+
+    @Test
+    public void doesNotTakeWordsContainingAKeyManagementForIt() {
+        // Neither a PSK nor a SAE key management
+        assertEquals(CapabilitiesParser.SECURITY_OPEN, CapabilitiesParser.parse("[RSN-PSKX-CCMP][ESS]").security);
+        assertEquals(CapabilitiesParser.SECURITY_OPEN, CapabilitiesParser.parse("[RSN-FT/SAEX-CCMP][ESS]").security);
+    }
+
+    @Test
+    public void parsesOpenWepAndAdHocNetworks() {
+        final CapabilitiesParser.Capabilities open = CapabilitiesParser.parse("[ESS]");
+        assertEquals(CapabilitiesParser.SECURITY_OPEN, open.security);
+        assertEquals(0, open.ciphers);
+        assertArrayEquals(new String[]{"open"}, open.securityNames);
+        assertArrayEquals(new String[0], open.cipherNames);
+
+        assertEquals(CapabilitiesParser.SECURITY_WEP, CapabilitiesParser.parse("[WEP][ESS]").security);
+
+        final CapabilitiesParser.Capabilities adHoc = CapabilitiesParser.parse("[IBSS]");
+        assertTrue(adHoc.ibss);
+        assertFalse(adHoc.ess);
+    }
+
+    @Test
+    public void parsesMissingAndMalformedCapabilities() {
+        assertEquals(CapabilitiesParser.SECURITY_OPEN, CapabilitiesParser.parse(null).security);
+        assertEquals(CapabilitiesParser.SECURITY_OPEN, CapabilitiesParser.parse("").security);
+        // An unterminated token is ignored
+        final CapabilitiesParser.Capabilities truncated = CapabilitiesParser.parse("[ESS][WPA2-PSK");
+        assertEquals(CapabilitiesParser.SECURITY_OPEN, truncated.security);
+        assertTrue(truncated.ess);
+    }
+
+    @Test
+    public void reusesTheParsedCapabilities() {
+        final String capabilities = "[WPA2-PSK-CCMP][ESS]";
+        assertSame(CapabilitiesParser.parse(capabilities), CapabilitiesParser.parse(new String(capabilities)));
+    }
+
+    @Test
+    public void mapsSecurityNames() {
+        assertEquals(CapabilitiesParser.SECURITY_OPEN, CapabilitiesParser.securityFromName("open"));
+        assertEquals(CapabilitiesParser.SECURITY_WPA3, CapabilitiesParser.securityFromName("wpa3"));
+        assertEquals(CapabilitiesParser.SECURITY_EAP, CapabilitiesParser.securityFromName("eap"));
+        assertEquals(0, CapabilitiesParser.securityFromName("WPA3"));
+        assertEquals(0, CapabilitiesParser.securityFromName("unknown"));
+    }
+}
@@ -0,0 +1,201 @@
+package com.reactlibrary.rnwifi;
+
+import android.Manifest;
+import android.app.Application;
+import android.net.ConnectivityManager;
+import android.net.LinkAddress;
+import android.net.LinkProperties;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkRequest;
+import android.os.Handler;
+import android.provider.Settings;
+
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReadableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+import org.robolectric.shadows.ShadowNetwork;
+import org.robolectric.shadows.ShadowNetworkCapabilities;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * The latency of the Android 10+ connections verified by callback, the network callbacks being delivered after
+ * the delays of an access point profile. The delays are simulated on the main looper clock, so the connection
+ * timings are exact and the measured time is only the work of the module on the main thread.
+ *
+ * Run with `./gradlew test -Pbenchmark`, on a JDK 9+ for the Android 10 SDK.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ConnectBenchmark {
+
+    private static final int WARMUPS = 200;
+    private static final int ITERATIONS = 1000;
+    private static final String SSID = "bench";
+
+    private static final class Profile {
+        final String name;
+        final long availableMs;
+        final long capabilitiesMs;
+        final long linkPropertiesMs;
+
+        Profile(final String name, final long availableMs, final long capabilitiesMs, final long linkPropertiesMs) {
+            this.name = name;
+            this.availableMs = availableMs;
+            this.capabilitiesMs = capabilitiesMs;
+            this.linkPropertiesMs = linkPropertiesMs;
+        }
+
+        long totalMs() {
+            return availableMs + capabilitiesMs + linkPropertiesMs;
+        }
+    }
+
+    private static final Profile[] PROFILES = {
+            new Profile("fast access point", 150, 5, 20),
+            new Profile("slow association", 2500, 10, 40),
+            new Profile("slow DHCP", 300, 10, 1500),
+    };
+
+    private FakeSystemServices services;
+    private RNWifiModule module;
+    private Promise promise;
+    private Promise disconnectPromise;
+    private ConnectivityManager.NetworkCallback callback;
+    private JavaOnlyMap resolved;
+    private final Network network = ShadowNetwork.newInstance(100);
+    private NetworkCapabilities capabilities;
+    private LinkProperties linkProperties;
+
+    @Before
+    public void setUp() {
+        final Application application = RuntimeEnvironment.application;
+        shadowOf(application).grantPermissions(Manifest.permission.ACCESS_FINE_LOCATION);
+        Settings.Secure.putInt(application.getContentResolver(), Settings.Secure.LOCATION_MODE,
+                Settings.Secure.LOCATION_MODE_HIGH_ACCURACY);
+
+        capabilities = ShadowNetworkCapabilities.newInstance();
+        shadowOf(capabilities).addTransportType(NetworkCapabilities.TRANSPORT_WIFI);
+        linkProperties = mock(LinkProperties.class);
+        when(linkProperties.getLinkAddresses()).thenReturn(Collections.singletonList(mock(LinkAddress.class)));
+
+        // Stub-only mocks, so that their invocations do not pile up over the iterations
+        final ConnectivityManager connectivityManager = mock(ConnectivityManager.class, withSettings().stubOnly());
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                callback = invocation.getArgument(1);
+                return null;
+            }
+        }).when(connectivityManager).requestNetwork(any(NetworkRequest.class),
+                any(ConnectivityManager.NetworkCallback.class), any(Handler.class));
+        promise = mock(Promise.class, withSettings().stubOnly());
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                resolved = invocation.getArgument(0);
+                return null;
+            }
+        }).when(promise).resolve(any());
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                fail(String.format("connection rejected: %s", invocation.<String>getArgument(1)));
+                return null;
+            }
+        }).when(promise).reject(anyString(), anyString());
+        disconnectPromise = mock(Promise.class, withSettings().stubOnly());
+
+        services = new FakeSystemServices(application);
+        services.setConnectivity(connectivityManager);
+    }
+
+    @After
+    public void tearDown() {
+        if (module != null) {
+            module.onCatalystInstanceDestroy();
+        }
+    }
+
+    @Test
+    public void connectWithDelayedCallbacks() throws Exception {
+        // Pinned to an access point, so that its BSSID is not read after the connection
+        final ReadableMap options = JavaOnlyMap.of("ssid", SSID, "password", "benchmark", "verification", "callback",
+                "bssid", "0a:1b:2c:3d:4e:5f");
+        for (final Profile profile : PROFILES) {
+            if (module != null) {
+                module.onCatalystInstanceDestroy();
+            }
+            module = new RNWifiModule(new ReactApplicationContext(RuntimeEnvironment.application), services);
+            final BenchmarkRunner.Result result = BenchmarkRunner.run(
+                    String.format(Locale.ROOT, "connect, %s", profile.name), WARMUPS, ITERATIONS,
+                    new BenchmarkRunner.Operation() {
+                        @Override
+                        public Object run() {
+                            return connect(options, profile);
+                        }
+                    });
+            final long p50 = (long) totalPercentile("p50");
+            System.out.println(String.format(Locale.ROOT, "%-48s %12d ms p50 %8d ms p99", "",
+                    p50, (long) totalPercentile("p99")));
+            // No time is lost between the callbacks and the resolution of the connection
+            assertEquals(profile.totalMs(), p50);
+            assertNotNull(result);
+        }
+    }
+
+    private JavaOnlyMap connect(final ReadableMap options, final Profile profile) {
+        callback = null;
+        resolved = null;
+        module.connectToProtectedWifiSSID(options, promise);
+        assertNotNull("no network requested", callback);
+        ShadowLooper.idleMainLooper(profile.availableMs, TimeUnit.MILLISECONDS);
+        callback.onAvailable(network);
+        ShadowLooper.idleMainLooper(profile.capabilitiesMs, TimeUnit.MILLISECONDS);
+        callback.onCapabilitiesChanged(network, capabilities);
+        ShadowLooper.idleMainLooper(profile.linkPropertiesMs, TimeUnit.MILLISECONDS);
+        callback.onLinkPropertiesChanged(network, linkProperties);
+        assertNotNull("connection not resolved", resolved);
+        // Released, so that the next connection requests the network again instead of reusing it
+        module.disconnectNetwork(resolved.getInt("handle"), disconnectPromise);
+        return resolved;
+    }
+
+    private double totalPercentile(final String percentile) {
+        final Promise metricsPromise = mock(Promise.class);
+        final JavaOnlyMap[] metrics = new JavaOnlyMap[1];
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                metrics[0] = invocation.getArgument(0);
+                return null;
+            }
+        }).when(metricsPromise).resolve(any());
+        module.getConnectionMetrics(metricsPromise);
+        return metrics[0].getMap("phases").getMap("total").getDouble(percentile);
+    }
+}
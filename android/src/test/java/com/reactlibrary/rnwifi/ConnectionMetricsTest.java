@@ -0,0 +1,76 @@
+package com.reactlibrary.rnwifi;
+
+import com.facebook.react.bridge.ReadableMap;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@RunWith(RobolectricTestRunner.class)
+public class ConnectionMetricsTest {
+
+    @Test
+    public void reportsNearestRankPercentiles() {
+        final ConnectionMetrics metrics = new ConnectionMetrics();
+        // Recorded out of order, the percentiles are of the sorted samples
+        for (long total = 100; total >= 1; total--) {
+            metrics.record(timings(total));
+        }
+
+        final ReadableMap total = metrics.toWritableMap().getMap("phases").getMap("total");
+
+        assertEquals(100, total.getInt("count"));
+        assertEquals(50, total.getDouble("p50"), 0);
+        assertEquals(95, total.getDouble("p95"), 0);
+        assertEquals(99, total.getDouble("p99"), 0);
+    }
+
+    @Test
+    public void reportsTheLastSamplesOfEveryPhase() {
+        final ConnectionMetrics metrics = new ConnectionMetrics();
+        for (long total = 1; total <= 150; total++) {
+            metrics.record(timings(total));
+        }
+        metrics.record(Collections.singletonMap("reuse", 7L));
+
+        final ReadableMap result = metrics.toWritableMap();
+        final ReadableMap total = result.getMap("phases").getMap("total");
+        final ReadableMap reuse = result.getMap("phases").getMap("reuse");
+
+        assertEquals(151, result.getInt("connections"));
+        assertEquals(ConnectionMetrics.WINDOW_SIZE, total.getInt("count"));
+        // The samples 51 to 150
+        assertEquals(100, total.getDouble("p50"), 0);
+        assertEquals(149, total.getDouble("p99"), 0);
+        assertEquals(1, reuse.getInt("count"));
+        assertEquals(7, reuse.getDouble("p50"), 0);
+        assertFalse(result.getMap("phases").hasKey("missing"));
+    }
+
+    @Test
+    public void countsTheReconnectCacheHitsAndMisses() {
+        final ConnectionMetrics metrics = new ConnectionMetrics();
+        metrics.recordReconnect(true);
+        metrics.recordReconnect(false);
+        metrics.recordReconnect(false);
+
+        final ReadableMap reconnectCache = metrics.toWritableMap().getMap("reconnectCache");
+
+        assertEquals(1, reconnectCache.getInt("hits"));
+        assertEquals(2, reconnectCache.getInt("misses"));
+    }
+
+    private static Map<String, Long> timings(final long total) {
+        final Map<String, Long> timings = new LinkedHashMap<>();
+        timings.put("permissions", 1L);
+        timings.put("total", total);
+        return timings;
+    }
+}
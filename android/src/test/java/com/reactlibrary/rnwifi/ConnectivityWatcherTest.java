@@ -0,0 +1,132 @@
+package com.reactlibrary.rnwifi;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkRequest;
+import android.net.wifi.WifiInfo;
+import android.net.wifi.WifiManager;
+
+import com.facebook.react.bridge.ReadableMap;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowNetwork;
+import org.robolectric.shadows.ShadowNetworkCapabilities;
+import org.robolectric.shadows.ShadowWifiInfo;
+import org.robolectric.util.ReflectionHelpers;
+import org.robolectric.util.ReflectionHelpers.ClassParameter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * The connectivity state of {@link ConnectivityWatcher}, from the active network and then from the network callback.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ConnectivityWatcherTest {
+
+    private final Network network = ShadowNetwork.newInstance(100);
+    private ConnectivityManager connectivityManager;
+    private EventRecordingContext context;
+    private ConnectivityWatcher watcher;
+
+    @Before
+    public void setUp() {
+        final WifiInfo wifiInfo = ShadowWifiInfo.newInstance();
+        shadowOf(wifiInfo).setSSID("home");
+        shadowOf((WifiManager) RuntimeEnvironment.application.getSystemService(Context.WIFI_SERVICE)).setConnectionInfo(wifiInfo);
+
+        connectivityManager = mock(ConnectivityManager.class);
+        final FakeSystemServices services = new FakeSystemServices(RuntimeEnvironment.application);
+        services.setConnectivity(connectivityManager);
+        context = new EventRecordingContext(RuntimeEnvironment.application);
+        watcher = new ConnectivityWatcher(context, services);
+    }
+
+    @Test
+    public void watchesTheWifiNetworksWithoutInternetAccess() {
+        watcher.start();
+        watcher.start();
+
+        final ArgumentCaptor<NetworkRequest> request = ArgumentCaptor.forClass(NetworkRequest.class);
+        verify(connectivityManager).registerNetworkCallback(request.capture(), any(ConnectivityManager.NetworkCallback.class));
+        assertTrue(request.getValue().hasTransport(NetworkCapabilities.TRANSPORT_WIFI));
+        assertFalse(request.getValue().hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET));
+    }
+
+    @Test
+    public void startsFromTheActiveWifiNetwork() {
+        when(connectivityManager.getActiveNetwork()).thenReturn(network);
+        when(connectivityManager.getNetworkCapabilities(network))
+                .thenReturn(capabilities(NetworkCapabilities.TRANSPORT_WIFI, NetworkCapabilities.NET_CAPABILITY_VALIDATED));
+
+        final ReadableMap state = watcher.getState();
+
+        assertTrue(state.getBoolean("connected"));
+        assertEquals("home", state.getString("SSID"));
+        assertTrue(state.getBoolean("validated"));
+        assertTrue(state.getBoolean("metered"));
+        verify(connectivityManager, never()).getNetworkInfo(anyInt());
+    }
+
+    @Test
+    public void isNotConnectedWhenTheActiveNetworkIsNotAWifiOne() {
+        when(connectivityManager.getActiveNetwork()).thenReturn(network);
+        when(connectivityManager.getNetworkCapabilities(network))
+                .thenReturn(capabilities(NetworkCapabilities.TRANSPORT_CELLULAR, NetworkCapabilities.NET_CAPABILITY_VALIDATED));
+
+        final ReadableMap state = watcher.getState();
+
+        assertFalse(state.getBoolean("connected"));
+        assertNull(state.getString("SSID"));
+        assertFalse(state.getBoolean("validated"));
+    }
+
+    @Test
+    public void followsTheNetworkCallback() {
+        watcher.start();
+        final ArgumentCaptor<ConnectivityManager.NetworkCallback> callback =
+                ArgumentCaptor.forClass(ConnectivityManager.NetworkCallback.class);
+        verify(connectivityManager).registerNetworkCallback(any(NetworkRequest.class), callback.capture());
+        assertFalse(watcher.isConnected());
+
+        // A network without internet access, never validated
+        callback.getValue().onAvailable(network);
+        callback.getValue().onCapabilitiesChanged(network, capabilities(NetworkCapabilities.TRANSPORT_WIFI,
+                NetworkCapabilities.NET_CAPABILITY_NOT_METERED));
+        assertTrue(watcher.isConnected());
+        final ReadableMap state = watcher.getState();
+        assertEquals("home", state.getString("SSID"));
+        assertFalse(state.getBoolean("validated"));
+        assertFalse(state.getBoolean("metered"));
+
+        callback.getValue().onLost(network);
+        assertFalse(watcher.isConnected());
+        verify(context.emitter, times(2)).emit(eq(RNWifiEvents.CONNECTIVITY_CHANGED), any());
+    }
+
+    private static NetworkCapabilities capabilities(final int transport, final int capability) {
+        final NetworkCapabilities capabilities = ShadowNetworkCapabilities.newInstance();
+        shadowOf(capabilities).addTransportType(transport);
+        // Hidden, no shadow for it
+        ReflectionHelpers.callInstanceMethod(capabilities, "addCapability", ClassParameter.from(int.class, capability));
+        return capabilities;
+    }
+}
@@ -0,0 +1,33 @@
+package com.reactlibrary.rnwifi;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.facebook.react.bridge.JavaScriptModule;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.modules.core.DeviceEventManagerModule.RCTDeviceEventEmitter;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * A React context with an active catalyst instance, whose events go to a mock emitter to verify them.
+ */
+class EventRecordingContext extends ReactApplicationContext {
+
+    final RCTDeviceEventEmitter emitter = mock(RCTDeviceEventEmitter.class);
+
+    EventRecordingContext(@NonNull final Context context) {
+        super(context);
+    }
+
+    @Override
+    public boolean hasActiveCatalystInstance() {
+        return true;
+    }
+
+    @Override
+    public <T extends JavaScriptModule> T getJSModule(final Class<T> jsInterface) {
+        return jsInterface.cast(emitter);
+    }
+}
@@ -0,0 +1,103 @@
+package com.reactlibrary.rnwifi;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.net.wifi.ScanResult;
+import android.net.wifi.WifiManager;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A scan result source whose scans only complete when the test delivers their results.
+ */
+class FakeScanResultSource implements ScanResultSource {
+
+    private final Context context;
+    private final List<BroadcastReceiver> receivers = new ArrayList<>();
+    private List<ScanResult> results = Collections.emptyList();
+    private boolean throttled = false;
+    private boolean acceptScans = true;
+    private int scansStarted = 0;
+
+    FakeScanResultSource(@NonNull final Context context) {
+        this.context = context;
+    }
+
+    @NonNull
+    @Override
+    public synchronized List<ScanResult> getScanResults() {
+        return results;
+    }
+
+    @Override
+    public synchronized boolean startScan() {
+        scansStarted++;
+        return acceptScans;
+    }
+
+    @Override
+    public synchronized void registerReceiver(@NonNull final BroadcastReceiver receiver) {
+        receivers.add(receiver);
+    }
+
+    @Override
+    public synchronized void unregisterReceiver(@NonNull final BroadcastReceiver receiver) {
+        receivers.remove(receiver);
+    }
+
+    @Override
+    public synchronized boolean isThrottled() {
+        return throttled;
+    }
+
+    synchronized void setThrottled(final boolean throttled) {
+        this.throttled = throttled;
+    }
+
+    synchronized void setAcceptScans(final boolean acceptScans) {
+        this.acceptScans = acceptScans;
+    }
+
+    synchronized int getScansStarted() {
+        return scansStarted;
+    }
+
+    synchronized int getReceiverCount() {
+        return receivers.size();
+    }
+
+    /**
+     * Completes a scan with the given results: the SCAN_RESULTS_AVAILABLE_ACTION intent is sent to the registered
+     * receivers on the calling thread, which stands for the scan thread.
+     */
+    void deliver(@NonNull final List<ScanResult> scanResults) {
+        broadcast(scanResults, true);
+    }
+
+    /**
+     * Signals a scan that failed, the results staying the ones of the last scan.
+     */
+    void fail() {
+        broadcast(null, false);
+    }
+
+    private void broadcast(final List<ScanResult> scanResults, final boolean updated) {
+        final List<BroadcastReceiver> notified;
+        synchronized (this) {
+            if (scanResults != null) {
+                results = Collections.unmodifiableList(new ArrayList<>(scanResults));
+            }
+            notified = new ArrayList<>(receivers);
+        }
+        final Intent intent = new Intent(WifiManager.SCAN_RESULTS_AVAILABLE_ACTION);
+        intent.putExtra(WifiManager.EXTRA_RESULTS_UPDATED, updated);
+        for (BroadcastReceiver receiver : notified) {
+            receiver.onReceive(context, intent);
+        }
+    }
+}
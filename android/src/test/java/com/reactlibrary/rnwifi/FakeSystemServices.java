@@ -0,0 +1,77 @@
+package com.reactlibrary.rnwifi;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.os.Handler;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.ReadableMap;
+
+/**
+ * The system services of the tests: the scan results come from a {@link FakeScanResultSource}, and the
+ * ConnectivityManager is the given one, usually a mock, else the Robolectric one. The WifiManager and the
+ * LocationManager are the Robolectric ones, set up through their shadows.
+ */
+class FakeSystemServices extends SystemServices {
+
+    private final Context context;
+    private final FakeScanResultSource scanResultSource;
+    private ConnectivityManager connectivityManager;
+    private Handler scanHandler;
+
+    FakeSystemServices(@NonNull final Context context) {
+        super(context);
+        this.context = context.getApplicationContext();
+        scanResultSource = new FakeScanResultSource(context.getApplicationContext());
+        super.setScanResults(scanResultSource);
+    }
+
+    FakeScanResultSource fakeScanResults() {
+        return scanResultSource;
+    }
+
+    synchronized void setConnectivity(@Nullable final ConnectivityManager connectivityManager) {
+        this.connectivityManager = connectivityManager;
+    }
+
+    @Nullable
+    @Override
+    synchronized ConnectivityManager connectivity() {
+        return connectivityManager != null ? connectivityManager : super.connectivity();
+    }
+
+    /**
+     * Runs the scan tasks on the given handler instead of the scan thread, like the main looper to control the
+     * clock of the delayed ones.
+     */
+    synchronized void setScanHandler(@Nullable final Handler scanHandler) {
+        this.scanHandler = scanHandler;
+    }
+
+    @Override
+    synchronized Handler scanHandler() {
+        return scanHandler != null ? scanHandler : super.scanHandler();
+    }
+
+    /**
+     * Replaces the scan results by a simulated environment, its requested scans completing on the scan handler,
+     * until it is replaced by null.
+     *
+     * @param options the options of {@link SimulatedScanResultSource}
+     */
+    synchronized SimulatedScanResultSource simulate(@Nullable final ReadableMap options) {
+        final SimulatedScanResultSource simulation = new SimulatedScanResultSource(context, scanHandler(), options);
+        setScanResults(simulation);
+        return simulation;
+    }
+
+    /**
+     * A simulation replaced by null goes back to the fake source instead of the WifiManager.
+     */
+    @Override
+    synchronized void setScanResults(@Nullable final ScanResultSource source) {
+        super.setScanResults(source != null ? source : scanResultSource);
+    }
+}
@@ -0,0 +1,36 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.wifi.ScanResult;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.List;
+
+/**
+ * The scan results encoding of loadWifiList before {@link ScanResultEncoder}, to compare with it: a JSONObject is
+ * allocated for every result, even for the hidden ones which are then dropped.
+ */
+final class LegacyScanResultJson {
+
+    private LegacyScanResultJson() {
+    }
+
+    static String toJson(final List<ScanResult> results) throws JSONException {
+        final JSONArray wifiArray = new JSONArray();
+        for (ScanResult result : results) {
+            final JSONObject wifiObject = new JSONObject();
+            if (!result.SSID.equals("")) {
+                wifiObject.put("SSID", result.SSID);
+                wifiObject.put("BSSID", result.BSSID);
+                wifiObject.put("capabilities", result.capabilities);
+                wifiObject.put("frequency", result.frequency);
+                wifiObject.put("level", result.level);
+                wifiObject.put("timestamp", result.timestamp);
+                wifiArray.put(wifiObject);
+            }
+        }
+        return wifiArray.toString();
+    }
+}
@@ -0,0 +1,70 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.wifi.ScanResult;
+
+import org.json.JSONArray;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The scan results of loadWifiList, a stringified JSONArray, against those of loadWifiListNative, a WritableArray,
+ * at 50, 500 and 5000 results. The string is also parsed back, standing for the copy JS makes with JSON.parse.
+ *
+ * Run with `./gradlew test -Pbenchmark`.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class LoadWifiListBenchmark {
+
+    private static final int[] SIZES = {50, 500, 5000};
+    private static final int WARMUPS = 200;
+    private static final int ITERATIONS = 500;
+
+    @Test
+    public void compareStringAndArray() throws Exception {
+        for (final int size : SIZES) {
+            final List<ScanResult> results = TestScanResults.simulated(size, 1);
+            final ScanResultEncoder encoder = new ScanResultEncoder();
+            int visible = 0;
+            for (ScanResult result : results) {
+                visible += ScanResultEncoder.isHidden(result) ? 0 : 1;
+            }
+            assertEquals(visible, new JSONArray(encoder.toJson(results)).length());
+            assertEquals(visible, encoder.toWritableArray(results).size());
+
+            BenchmarkRunner.run(String.format(Locale.ROOT, "string, JSONObject loop, %d results", size),
+                    WARMUPS, ITERATIONS, new BenchmarkRunner.Operation() {
+                        @Override
+                        public Object run() throws Exception {
+                            return LegacyScanResultJson.toJson(results);
+                        }
+                    });
+            BenchmarkRunner.run(String.format(Locale.ROOT, "string, %d results", size),
+                    WARMUPS, ITERATIONS, new BenchmarkRunner.Operation() {
+                        @Override
+                        public Object run() {
+                            return encoder.toJson(results);
+                        }
+                    });
+            BenchmarkRunner.run(String.format(Locale.ROOT, "string and parse, %d results", size),
+                    WARMUPS, ITERATIONS, new BenchmarkRunner.Operation() {
+                        @Override
+                        public Object run() throws Exception {
+                            return new JSONArray(encoder.toJson(results));
+                        }
+                    });
+            BenchmarkRunner.run(String.format(Locale.ROOT, "array, %d results", size),
+                    WARMUPS, ITERATIONS, new BenchmarkRunner.Operation() {
+                        @Override
+                        public Object run() {
+                            return encoder.toWritableArray(results);
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.Network;
+
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.InterruptedIOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The failures of {@link NetworkFetcher}, the connections being opened by a mock network.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class NetworkFetcherTest {
+
+    private static final long TIMEOUT_MS = 5000;
+
+    private final Network network = mock(Network.class);
+    private NetworkFetcher fetcher;
+
+    @Before
+    public void setUp() {
+        fetcher = new NetworkFetcher();
+    }
+
+    @After
+    public void tearDown() {
+        fetcher.shutdown();
+    }
+
+    @Test
+    public void rejectsARequestThatThrows() throws Exception {
+        when(network.openConnection(any(URL.class))).thenThrow(new SecurityException("no permission"));
+        final Promise promise = mock(Promise.class);
+
+        fetcher.fetch(network, JavaOnlyMap.of("url", "http://192.168.1.1/"), promise);
+
+        verify(promise, timeout(TIMEOUT_MS)).reject(eq("fetchFailed"), any(SecurityException.class));
+    }
+
+    @Test
+    public void cancelsThePendingRequestsOnShutdown() throws Exception {
+        final CountDownLatch started = new CountDownLatch(2);
+        when(network.openConnection(any(URL.class))).thenAnswer(new Answer<URLConnection>() {
+            @Override
+            public URLConnection answer(final InvocationOnMock invocation) throws InterruptedIOException {
+                started.countDown();
+                try {
+                    // Until the shutdown interrupts it
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+                return null;
+            }
+        });
+        final Promise first = mock(Promise.class);
+        final Promise second = mock(Promise.class);
+        final Promise queued = mock(Promise.class);
+        fetcher.fetch(network, JavaOnlyMap.of("url", "http://192.168.1.1/"), first);
+        fetcher.fetch(network, JavaOnlyMap.of("url", "http://192.168.1.1/"), second);
+        fetcher.fetch(network, JavaOnlyMap.of("url", "http://192.168.1.1/"), queued);
+        started.await();
+
+        fetcher.shutdown();
+
+        verify(queued).reject(eq("cancelled"), anyString());
+        verify(first, timeout(TIMEOUT_MS)).reject(eq("fetchFailed"), any(InterruptedIOException.class));
+        verify(second, timeout(TIMEOUT_MS)).reject(eq("fetchFailed"), any(InterruptedIOException.class));
+        verify(queued, never()).reject(eq("fetchFailed"), any(Throwable.class));
+    }
+}
@@ -0,0 +1,204 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkRequest;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.facebook.react.bridge.Promise;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowNetwork;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricTestRunner.class)
+public class NetworkRequestManagerTest {
+
+    private final NetworkRequest networkRequest =
+            new NetworkRequest.Builder().addTransportType(NetworkCapabilities.TRANSPORT_WIFI).build();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Network network = ShadowNetwork.newInstance(100);
+    private ConnectivityManager connectivityManager;
+    private NetworkRequestManager manager;
+
+    @Before
+    public void setUp() {
+        connectivityManager = mock(ConnectivityManager.class);
+        final FakeSystemServices services = new FakeSystemServices(RuntimeEnvironment.application);
+        services.setConnectivity(connectivityManager);
+        manager = new NetworkRequestManager(services);
+    }
+
+    @Test
+    public void requestsTheNetworkOfASubmittedRequest() {
+        final ConnectivityManager.NetworkCallback callback = new ConnectivityManager.NetworkCallback();
+        final NetworkRequestManager.Request request = manager.create(mock(Promise.class));
+
+        manager.submit(request, networkRequest, callback, handler, NetworkRequestManager.WHEN_BUSY_SUPERSEDE);
+
+        verify(connectivityManager).requestNetwork(networkRequest, callback, handler);
+        assertNotEquals(request.handle, manager.create(mock(Promise.class)).handle);
+    }
+
+    @Test
+    public void supersedesTheRequestInFlight() {
+        final Promise firstPromise = mock(Promise.class);
+        final ConnectivityManager.NetworkCallback first = new ConnectivityManager.NetworkCallback();
+        final ConnectivityManager.NetworkCallback second = new ConnectivityManager.NetworkCallback();
+        manager.submit(manager.create(firstPromise), networkRequest, first, handler, NetworkRequestManager.WHEN_BUSY_SUPERSEDE);
+
+        manager.submit(manager.create(mock(Promise.class)), networkRequest, second, handler,
+                NetworkRequestManager.WHEN_BUSY_SUPERSEDE);
+
+        verify(firstPromise).reject(eq("superseded"), anyString());
+        verify(connectivityManager).unregisterNetworkCallback(first);
+        verify(connectivityManager).requestNetwork(networkRequest, second, handler);
+    }
+
+    @Test
+    public void queuesARequestUntilTheOneInFlightSettles() {
+        final ConnectivityManager.NetworkCallback first = new ConnectivityManager.NetworkCallback();
+        final ConnectivityManager.NetworkCallback second = new ConnectivityManager.NetworkCallback();
+        final ConnectivityManager.NetworkCallback third = new ConnectivityManager.NetworkCallback();
+        final NetworkRequestManager.Request firstRequest = manager.create(mock(Promise.class));
+        final Promise secondPromise = mock(Promise.class);
+        final NetworkRequestManager.Request secondRequest = manager.create(secondPromise);
+        manager.submit(firstRequest, networkRequest, first, handler, NetworkRequestManager.WHEN_BUSY_SUPERSEDE);
+
+        manager.submit(secondRequest, networkRequest, second, handler, NetworkRequestManager.WHEN_BUSY_QUEUE);
+        verify(connectivityManager, never()).requestNetwork(networkRequest, second, handler);
+
+        // Connected, the first request keeps its network
+        firstRequest.promise.resolve(null);
+        verify(connectivityManager).requestNetwork(networkRequest, second, handler);
+        verify(connectivityManager, never()).unregisterNetworkCallback(first);
+        verify(secondPromise, never()).reject(anyString(), anyString());
+
+        // Failed, the next request goes on
+        manager.submit(manager.create(mock(Promise.class)), networkRequest, third, handler,
+                NetworkRequestManager.WHEN_BUSY_QUEUE);
+        secondRequest.promise.reject("failed", "could not connect");
+        verify(connectivityManager).unregisterNetworkCallback(second);
+        verify(connectivityManager).requestNetwork(networkRequest, third, handler);
+    }
+
+    @Test
+    public void releasesAConnectedRequest() {
+        final ConnectivityManager.NetworkCallback callback = new ConnectivityManager.NetworkCallback();
+        final Promise promise = mock(Promise.class);
+        final NetworkRequestManager.Request request = connected(callback, promise);
+        when(connectivityManager.getBoundNetworkForProcess()).thenReturn(network);
+        assertSame(network, manager.getNetwork(request.handle));
+
+        assertTrue(manager.release(request.handle));
+
+        verify(connectivityManager).unregisterNetworkCallback(callback);
+        verify(connectivityManager).bindProcessToNetwork(null);
+        // Already settled
+        verify(promise, never()).reject(anyString(), anyString());
+        assertNull(manager.getNetwork(request.handle));
+        assertFalse(manager.release(request.handle));
+    }
+
+    @Test
+    public void cancelsARequestReleasedBeforeItSettles() {
+        final ConnectivityManager.NetworkCallback callback = new ConnectivityManager.NetworkCallback();
+        final Promise promise = mock(Promise.class);
+        final NetworkRequestManager.Request request = manager.create(promise);
+        manager.submit(request, networkRequest, callback, handler, NetworkRequestManager.WHEN_BUSY_SUPERSEDE);
+
+        assertTrue(manager.release(request.handle));
+
+        verify(promise).reject(eq("cancelled"), anyString());
+        verify(connectivityManager).unregisterNetworkCallback(callback);
+        verify(connectivityManager, never()).bindProcessToNetwork(any(Network.class));
+    }
+
+    @Test
+    public void releasesASharedRequestWithItsLastHandle() {
+        final ConnectivityManager.NetworkCallback callback = new ConnectivityManager.NetworkCallback();
+        final NetworkRequestManager.Request request = connected(callback, mock(Promise.class));
+
+        final int shared = manager.share(request.handle);
+
+        assertNotEquals(0, shared);
+        assertNotEquals(request.handle, shared);
+        assertSame(network, manager.getNetwork(shared));
+        assertTrue(manager.release(request.handle));
+        verify(connectivityManager, never()).unregisterNetworkCallback(callback);
+        assertNull(manager.getNetwork(request.handle));
+        assertSame(network, manager.getNetwork(shared));
+
+        assertTrue(manager.release(shared));
+        verify(connectivityManager).unregisterNetworkCallback(callback);
+        assertEquals(0, manager.share(shared));
+    }
+
+    @Test
+    public void resubmitsARequestWithAnotherCallback() {
+        final ConnectivityManager.NetworkCallback pinned = new ConnectivityManager.NetworkCallback();
+        final ConnectivityManager.NetworkCallback unpinned = new ConnectivityManager.NetworkCallback();
+        final NetworkRequest unpinnedRequest =
+                new NetworkRequest.Builder().addTransportType(NetworkCapabilities.TRANSPORT_WIFI).build();
+        final NetworkRequestManager.Request request = manager.create(mock(Promise.class));
+        manager.submit(request, networkRequest, pinned, handler, NetworkRequestManager.WHEN_BUSY_SUPERSEDE);
+        request.setNetwork(network);
+
+        manager.resubmit(request, unpinnedRequest, unpinned);
+
+        verify(connectivityManager).unregisterNetworkCallback(pinned);
+        verify(connectivityManager).requestNetwork(unpinnedRequest, unpinned, handler);
+        assertNull(manager.getNetwork(request.handle));
+        // Still the request in flight, the next one is queued
+        final ConnectivityManager.NetworkCallback next = new ConnectivityManager.NetworkCallback();
+        manager.submit(manager.create(mock(Promise.class)), networkRequest, next, handler,
+                NetworkRequestManager.WHEN_BUSY_QUEUE);
+        verify(connectivityManager, never()).requestNetwork(networkRequest, next, handler);
+    }
+
+    @Test
+    public void cancelsThePendingRequestsOnly() {
+        final ConnectivityManager.NetworkCallback connectedCallback = new ConnectivityManager.NetworkCallback();
+        final NetworkRequestManager.Request connected = connected(connectedCallback, mock(Promise.class));
+        final Promise inFlight = mock(Promise.class);
+        final Promise queued = mock(Promise.class);
+        manager.submit(manager.create(inFlight), networkRequest, new ConnectivityManager.NetworkCallback(), handler,
+                NetworkRequestManager.WHEN_BUSY_SUPERSEDE);
+        manager.submit(manager.create(queued), networkRequest, new ConnectivityManager.NetworkCallback(), handler,
+                NetworkRequestManager.WHEN_BUSY_QUEUE);
+
+        manager.cancelPending();
+
+        verify(inFlight).reject(eq("cancelled"), anyString());
+        verify(queued).reject(eq("cancelled"), anyString());
+        verify(connectivityManager, never()).unregisterNetworkCallback(connectedCallback);
+        assertSame(network, manager.getNetwork(connected.handle));
+    }
+
+    private NetworkRequestManager.Request connected(final ConnectivityManager.NetworkCallback callback, final Promise promise) {
+        final NetworkRequestManager.Request request = manager.create(promise);
+        manager.submit(request, networkRequest, callback, handler, NetworkRequestManager.WHEN_BUSY_SUPERSEDE);
+        request.setNetwork(network);
+        request.promise.resolve(null);
+        return request;
+    }
+}
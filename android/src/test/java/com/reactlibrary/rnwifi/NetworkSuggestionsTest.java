@@ -0,0 +1,45 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.wifi.WifiNetworkSuggestion;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * The suggestions built by {@link NetworkSuggestions} from the options passed from JS.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class NetworkSuggestionsTest {
+
+    @Test
+    public void buildsASuggestionPerEntry() {
+        final List<WifiNetworkSuggestion> suggestions = NetworkSuggestions.fromReadableArray(JavaOnlyArray.of(
+                JavaOnlyMap.of("ssid", "site-1", "password", "secret", "hidden", true, "priority", 2),
+                JavaOnlyMap.of("ssid", "site-2", "password", "secret", "security", "wpa3", "bssid", "0a:1b:2c:3d:4e:5f")));
+
+        assertEquals(2, suggestions.size());
+    }
+
+    @Test
+    public void rejectsTheConnectionOnlyOptions() {
+        for (String option : new String[]{"timeout", "verification", "whenBusy", "bindProcess", "band"}) {
+            final JavaOnlyMap suggestion = JavaOnlyMap.of("ssid", "site-2", "password", "secret");
+            suggestion.putString(option, "value");
+            try {
+                NetworkSuggestions.fromReadableArray(JavaOnlyArray.of(JavaOnlyMap.of("ssid", "site-1"), suggestion));
+                fail(String.format("%s was accepted", option));
+            } catch (IllegalArgumentException e) {
+                assertEquals(String.format("suggestion 1: %s is not supported by suggestions", option), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.reactlibrary.rnwifi;
+
+import com.facebook.react.bridge.Promise;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricTestRunner.class)
+public class OncePromiseTest {
+
+    @Test
+    public void settlesTheWrappedPromiseOnce() {
+        final Promise wrapped = mock(Promise.class);
+        final OncePromise promise = new OncePromise(wrapped);
+
+        promise.resolve("connected");
+        promise.reject("failed", "too late");
+
+        assertTrue(promise.isSettled());
+        verify(wrapped).resolve("connected");
+        verify(wrapped, never()).reject("failed", "too late");
+    }
+
+    @Test
+    public void runsTheSettledActionsOnce() {
+        final OncePromise promise = new OncePromise(mock(Promise.class));
+        final AtomicInteger runs = new AtomicInteger();
+        final Runnable action = new Runnable() {
+            @Override
+            public void run() {
+                runs.incrementAndGet();
+            }
+        };
+        promise.whenSettled(action);
+
+        assertEquals(0, runs.get());
+        promise.reject("superseded", "The connection was superseded by a new one");
+        promise.resolve(null);
+        assertEquals(1, runs.get());
+
+        // Already settled, run right away
+        promise.whenSettled(action);
+        assertEquals(2, runs.get());
+    }
+}
@@ -0,0 +1,345 @@
+package com.reactlibrary.rnwifi;
+
+import android.Manifest;
+import android.app.Application;
+import android.content.Context;
+import android.content.Intent;
+import android.net.ConnectivityManager;
+import android.net.DhcpInfo;
+import android.net.LinkAddress;
+import android.net.LinkProperties;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkInfo;
+import android.net.NetworkRequest;
+import android.net.wifi.ScanResult;
+import android.net.wifi.WifiInfo;
+import android.net.wifi.WifiManager;
+import android.os.Handler;
+import android.provider.Settings;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReadableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowNetwork;
+import org.robolectric.shadows.ShadowLooper;
+import org.robolectric.shadows.ShadowNetworkCapabilities;
+import org.robolectric.shadows.ShadowNetworkInfo;
+import org.robolectric.shadows.ShadowWifiInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * The Android 10+ connections of the module, the network callbacks and broadcasts being delivered by the test.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class RNWifiModuleTest {
+
+    private static final long TIMEOUT_MS = 5000;
+    private static final String SSID = "home";
+    private static final String BSSID = "0a:1b:2c:3d:4e:5f";
+    private static final String OTHER_BSSID = "0a:1b:2c:3d:4e:60";
+
+    private Application application;
+    private ConnectivityManager connectivityManager;
+    private FakeSystemServices services;
+    private RNWifiModule module;
+    private final Network network = ShadowNetwork.newInstance(100);
+    private NetworkCapabilities capabilities;
+    private LinkProperties linkProperties;
+
+    @Before
+    public void setUp() {
+        application = RuntimeEnvironment.application;
+        shadowOf(application).grantPermissions(Manifest.permission.ACCESS_FINE_LOCATION);
+        Settings.Secure.putInt(application.getContentResolver(), Settings.Secure.LOCATION_MODE,
+                Settings.Secure.LOCATION_MODE_HIGH_ACCURACY);
+
+        capabilities = ShadowNetworkCapabilities.newInstance();
+        shadowOf(capabilities).addTransportType(NetworkCapabilities.TRANSPORT_WIFI);
+        linkProperties = mock(LinkProperties.class);
+        when(linkProperties.getLinkAddresses()).thenReturn(Collections.singletonList(mock(LinkAddress.class)));
+
+        connectivityManager = mock(ConnectivityManager.class);
+        services = new FakeSystemServices(application);
+        services.setConnectivity(connectivityManager);
+        module = new RNWifiModule(new ReactApplicationContext(application), services);
+    }
+
+    @After
+    public void tearDown() {
+        module.onCatalystInstanceDestroy();
+    }
+
+    @Test
+    public void supersedesTheConnectionInProgress() {
+        final Promise superseded = mock(Promise.class);
+        module.connectToProtectedWifiSSID(options(BSSID, "callback"), superseded);
+        final ConnectivityManager.NetworkCallback supersededCallback = requestedCallback(1);
+
+        final Promise promise = mock(Promise.class);
+        module.connectToProtectedWifiSSID(options(BSSID, "callback"), promise);
+
+        verify(superseded).reject(eq("superseded"), anyString());
+        verify(connectivityManager).unregisterNetworkCallback(supersededCallback);
+        connectByCallback(requestedCallback(2));
+        assertEquals(2, resolved(promise).getInt("handle"));
+    }
+
+    @Test
+    public void timesOutAConnectionWithoutAddress() {
+        final JavaOnlyMap options = options(BSSID, "callback");
+        options.putDouble("timeout", 5000);
+        final Promise promise = mock(Promise.class);
+        module.connectToProtectedWifiSSID(options, promise);
+        final ConnectivityManager.NetworkCallback callback = requestedCallback(1);
+        callback.onAvailable(network);
+        callback.onCapabilitiesChanged(network, capabilities);
+
+        ShadowLooper.idleMainLooper(4999, TimeUnit.MILLISECONDS);
+        verify(promise, never()).reject(anyString(), anyString());
+        ShadowLooper.idleMainLooper(1, TimeUnit.MILLISECONDS);
+
+        verify(promise).reject(eq("connectNetworkFailed"), anyString());
+        verify(connectivityManager).unregisterNetworkCallback(callback);
+        // A late address does not resolve it
+        callback.onLinkPropertiesChanged(network, linkProperties);
+        verify(promise, never()).resolve(any());
+    }
+
+    @Test
+    public void rejectsATimeoutThatIsNotPositive() {
+        final JavaOnlyMap options = options(BSSID, "callback");
+        options.putDouble("timeout", 0);
+        final Promise promise = mock(Promise.class);
+
+        module.connectToProtectedWifiSSID(options, promise);
+
+        verify(promise).reject(eq("invalid options"), anyString());
+        verify(connectivityManager, never()).requestNetwork(any(NetworkRequest.class),
+                any(ConnectivityManager.NetworkCallback.class), any(Handler.class));
+    }
+
+    @Test
+    public void retriesOnceWithoutPinningTheStrongestAccessPoint() {
+        scan(TestScanResults.create(SSID, BSSID, "[WPA2-PSK-CCMP][ESS]", -50, 2412),
+                TestScanResults.create(SSID, OTHER_BSSID, "[WPA2-PSK-CCMP][ESS]", -70, 2412));
+        final Promise promise = mock(Promise.class);
+        module.connectToProtectedWifiSSID(options(null, "callback"), promise);
+
+        final ConnectivityManager.NetworkCallback pinned = requestedCallback(1);
+        pinned.onUnavailable();
+        verify(promise, never()).reject(anyString(), anyString());
+        final ConnectivityManager.NetworkCallback unpinned = requestedCallback(2);
+        verify(connectivityManager).unregisterNetworkCallback(pinned);
+        unpinned.onUnavailable();
+
+        verify(promise).reject(eq("failed"), anyString());
+        requestedCallback(2);
+    }
+
+    @Test
+    public void doesNotRetryARequestedAccessPoint() {
+        final Promise promise = mock(Promise.class);
+        module.connectToProtectedWifiSSID(options(BSSID, "callback"), promise);
+
+        requestedCallback(1).onUnavailable();
+
+        verify(promise).reject(eq("failed"), anyString());
+        requestedCallback(1);
+    }
+
+    @Test
+    public void verifiesTheConnectedSsidByBroadcast() {
+        final Promise promise = mock(Promise.class);
+        module.connectToProtectedWifiSSID(options(BSSID, "broadcast"), promise);
+        requestedCallback(1).onAvailable(network);
+        broadcastConnected(SSID);
+        assertEquals(1, resolved(promise).getInt("handle"));
+        assertEquals(1, metrics().getInt("connections"));
+
+        final Promise other = mock(Promise.class);
+        module.connectToProtectedWifiSSID(options(OTHER_BSSID, "broadcast"), other);
+        requestedCallback(2).onAvailable(network);
+        broadcastConnected("elsewhere");
+        verify(other).reject(eq("connectNetworkFailed"), anyString());
+        // The receiver is gone with the settled promise
+        broadcastConnected(SSID);
+        verify(other, never()).resolve(any());
+    }
+
+    @Test
+    public void answersTheConnectionQueriesAsWifiOperations() {
+        final WifiManager wifiManager = (WifiManager) application.getSystemService(Context.WIFI_SERVICE);
+        final WifiInfo wifiInfo = ShadowWifiInfo.newInstance();
+        shadowOf(wifiInfo).setBSSID(BSSID);
+        shadowOf(wifiManager).setConnectionInfo(wifiInfo);
+        final List<String> threads = Collections.synchronizedList(new ArrayList<String>());
+        final Callback enabled = recordingThread(threads);
+        final Callback bssid = recordingThread(threads);
+
+        module.isEnabled(enabled);
+        module.getBSSID(bssid);
+
+        verify(enabled, timeout(TIMEOUT_MS)).invoke(true);
+        verify(bssid, timeout(TIMEOUT_MS)).invoke(BSSID.toUpperCase());
+        for (String thread : threads) {
+            assertTrue(thread, thread.startsWith("RNWifi-operation-"));
+        }
+    }
+
+    @Test
+    public void keepsReusingTheCachedConnectionWhenAnotherOneIsReleasedAsItResolves() {
+        when(connectivityManager.getNetworkCapabilities(network)).thenReturn(capabilities);
+        final EventRecordingContext context = new EventRecordingContext(application);
+        module.onCatalystInstanceDestroy();
+        module = new RNWifiModule(context, services);
+        module.connectToProtectedWifiSSID(options(BSSID, "callback"), mock(Promise.class));
+        connectByCallback(requestedCallback(1));
+
+        // The second connection, on another access point, is released from JS as it resolves
+        final Promise released = mock(Promise.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                module.disconnectNetwork(2, mock(Promise.class));
+                return null;
+            }
+        }).when(context.emitter).emit(eq(RNWifiEvents.CONNECTION_TIMINGS), any());
+        module.connectToProtectedWifiSSID(options(OTHER_BSSID, "callback"), released);
+        connectByCallback(requestedCallback(2));
+        verify(released).reject(eq("cancelled"), anyString());
+        verify(released, never()).resolve(any());
+
+        module.connectToProtectedWifiSSID(options(BSSID, "callback"), mock(Promise.class));
+        requestedCallback(2);
+        assertEquals(1, metrics().getMap("reconnectCache").getInt("hits"));
+    }
+
+    @Test
+    public void reusesALiveConnectionUntilItsLastHandleIsReleased() {
+        when(connectivityManager.getNetworkCapabilities(network)).thenReturn(capabilities);
+        final Promise first = mock(Promise.class);
+        module.connectToProtectedWifiSSID(options(BSSID, "callback"), first);
+        connectByCallback(requestedCallback(1));
+        final int firstHandle = resolved(first).getInt("handle");
+
+        final Promise second = mock(Promise.class);
+        module.connectToProtectedWifiSSID(options(BSSID, "callback"), second);
+        final int secondHandle = resolved(second).getInt("handle");
+        requestedCallback(1);
+        assertEquals(1, metrics().getMap("reconnectCache").getInt("hits"));
+
+        module.disconnectNetwork(firstHandle, mock(Promise.class));
+        module.disconnectNetwork(secondHandle, mock(Promise.class));
+        module.connectToProtectedWifiSSID(options(BSSID, "callback"), mock(Promise.class));
+
+        requestedCallback(2);
+        assertEquals(1, metrics().getMap("reconnectCache").getInt("hits"));
+    }
+
+    private static JavaOnlyMap options(@Nullable final String bssid, final String verification) {
+        final JavaOnlyMap options = JavaOnlyMap.of("ssid", SSID, "password", "password", "verification", verification);
+        if (bssid != null) {
+            options.putString("bssid", bssid);
+        }
+        return options;
+    }
+
+    /**
+     * @return the callback of the last network request, checking the number of requests so far
+     */
+    private ConnectivityManager.NetworkCallback requestedCallback(final int requests) {
+        final ArgumentCaptor<ConnectivityManager.NetworkCallback> callback =
+                ArgumentCaptor.forClass(ConnectivityManager.NetworkCallback.class);
+        verify(connectivityManager, times(requests)).requestNetwork(any(NetworkRequest.class), callback.capture(),
+                any(Handler.class));
+        final List<ConnectivityManager.NetworkCallback> callbacks = callback.getAllValues();
+        return callbacks.get(callbacks.size() - 1);
+    }
+
+    private void connectByCallback(final ConnectivityManager.NetworkCallback callback) {
+        callback.onAvailable(network);
+        callback.onCapabilitiesChanged(network, capabilities);
+        callback.onLinkPropertiesChanged(network, linkProperties);
+    }
+
+    private void scan(final ScanResult... results) {
+        final Promise promise = mock(Promise.class);
+        module.reScanAndLoadWifiListNative(null, promise);
+        services.fakeScanResults().deliver(Arrays.asList(results));
+        assertEquals(results.length, resolved(promise).getArray("results").size());
+    }
+
+    private void broadcastConnected(final String ssid) {
+        final WifiInfo wifiInfo = ShadowWifiInfo.newInstance();
+        // Quoted by WifiInfo
+        shadowOf(wifiInfo).setSSID(ssid);
+        shadowOf(wifiInfo).setBSSID(BSSID);
+        final WifiManager wifiManager = (WifiManager) application.getSystemService(Context.WIFI_SERVICE);
+        shadowOf(wifiManager).setConnectionInfo(wifiInfo);
+        shadowOf(wifiManager).setDhcpInfo(new DhcpInfo());
+        final Intent intent = new Intent(WifiManager.NETWORK_STATE_CHANGED_ACTION);
+        intent.putExtra(WifiManager.EXTRA_NETWORK_INFO, ShadowNetworkInfo.newInstance(NetworkInfo.DetailedState.CONNECTED,
+                ConnectivityManager.TYPE_WIFI, 0, true, NetworkInfo.State.CONNECTED));
+        application.sendBroadcast(intent);
+        ShadowLooper.idleMainLooper();
+    }
+
+    private static Callback recordingThread(final List<String> threads) {
+        final Callback callback = mock(Callback.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                threads.add(Thread.currentThread().getName());
+                return null;
+            }
+        }).when(callback).invoke(any());
+        return callback;
+    }
+
+    private static ReadableMap resolved(final Promise promise) {
+        final ArgumentCaptor<Object> value = ArgumentCaptor.forClass(Object.class);
+        verify(promise, atLeast(1)).resolve(value.capture());
+        return (ReadableMap) value.getValue();
+    }
+
+    private ReadableMap metrics() {
+        final Promise promise = mock(Promise.class);
+        module.getConnectionMetrics(promise);
+        return resolved(promise);
+    }
+}
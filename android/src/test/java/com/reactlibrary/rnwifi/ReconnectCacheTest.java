@@ -0,0 +1,76 @@
+package com.reactlibrary.rnwifi;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ReconnectCacheTest {
+
+    private static final String BSSID = "0a:1b:2c:3d:4e:5f";
+    private static final String OTHER_BSSID = "0a:1b:2c:3d:4e:60";
+
+    @Test
+    public void evictsTheLeastRecentlyUsedSsid() {
+        final ReconnectCache cache = new ReconnectCache();
+        for (int i = 0; i < ReconnectCache.CAPACITY; i++) {
+            cache.put("ssid" + i, i + 1, null);
+        }
+        // Used, so ssid1 is now the least recently used one
+        assertNotNull(cache.get("ssid0"));
+
+        cache.put("new", 100, null);
+
+        assertNull(cache.get("ssid1"));
+        assertNotNull(cache.get("ssid0"));
+        assertNotNull(cache.get("new"));
+        for (int i = 2; i < ReconnectCache.CAPACITY; i++) {
+            assertNotNull(cache.get("ssid" + i));
+        }
+    }
+
+    @Test
+    public void keepsTheKnownBssidWhenTheNewOneIsUnknown() {
+        final ReconnectCache cache = new ReconnectCache();
+        cache.put("home", 1, BSSID);
+
+        cache.put("home", 2, null);
+        assertEquals(2, cache.get("home").handle);
+        assertEquals(BSSID, cache.get("home").bssid);
+
+        cache.put("home", 3, "02:00:00:00:00:00");
+        assertEquals(3, cache.get("home").handle);
+        assertEquals(BSSID, cache.get("home").bssid);
+
+        cache.put("home", 4, OTHER_BSSID);
+        assertEquals(OTHER_BSSID, cache.get("home").bssid);
+    }
+
+    @Test
+    public void setsTheBssidOfTheSameConnectionOnly() {
+        final ReconnectCache cache = new ReconnectCache();
+        cache.put("home", 1, null);
+
+        cache.setBssid("home", 2, BSSID);
+        assertNull(cache.get("home").bssid);
+        cache.setBssid("home", 1, "02:00:00:00:00:00");
+        assertNull(cache.get("home").bssid);
+        cache.setBssid("other", 1, BSSID);
+        assertNull(cache.get("other"));
+
+        cache.setBssid("home", 1, BSSID);
+        assertEquals(BSSID, cache.get("home").bssid);
+    }
+
+    @Test
+    public void unpinForgetsTheBssidOnly() {
+        final ReconnectCache cache = new ReconnectCache();
+        cache.put("home", 1, BSSID);
+
+        cache.unpin("home");
+
+        assertEquals(1, cache.get("home").handle);
+        assertNull(cache.get("home").bssid);
+    }
+}
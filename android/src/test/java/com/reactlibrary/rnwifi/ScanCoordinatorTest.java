@@ -0,0 +1,236 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.wifi.ScanResult;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The cache, the shared scans, the quota and the timeouts of {@link ScanCoordinator}, the scans completing when
+ * the test delivers them and the scan tasks running on the main looper when the test idles it.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ScanCoordinatorTest {
+
+    private static final long TIMEOUT_MS = 1000;
+    private static final long SCAN_TIMEOUT_MS = 30 * 1000;
+    private static final String CAPABILITIES = "[WPA2-PSK-CCMP][ESS]";
+
+    private FakeSystemServices services;
+    private FakeScanResultSource source;
+    private ScanQuota scanQuota;
+    private ScanCoordinator coordinator;
+
+    private final List<ScanResult> scan = Arrays.asList(
+            TestScanResults.create("home", "0a:1b:2c:3d:4e:5f", CAPABILITIES, -50, 2412),
+            TestScanResults.create("office", "0a:00:00:00:00:01", CAPABILITIES, -40, 5200));
+
+    private static final class RecordingListener implements ScanCoordinator.Listener {
+        final List<List<ScanResult>> results = new ArrayList<>();
+        final List<Boolean> fresh = new ArrayList<>();
+
+        @Override
+        public synchronized void onScanResults(@NonNull final List<ScanResult> results, final boolean fresh, final long ageMs) {
+            this.results.add(results);
+            this.fresh.add(fresh);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        services = new FakeSystemServices(RuntimeEnvironment.application);
+        services.setScanHandler(new Handler(Looper.getMainLooper()));
+        source = services.fakeScanResults();
+        scanQuota = new ScanQuota(true);
+        coordinator = new ScanCoordinator(services, scanQuota);
+    }
+
+    @After
+    public void tearDown() {
+        coordinator.stop();
+    }
+
+    @Test
+    public void servesResultsYoungerThanTheMaxAge() {
+        final RecordingListener scanned = request(ScanCoordinator.DEFAULT_MAX_AGE_MS);
+        source.deliver(scan);
+        assertEquals(Collections.singletonList(true), scanned.fresh);
+
+        idleScanTasks(ScanCoordinator.DEFAULT_MAX_AGE_MS - 1);
+        final RecordingListener cached = request(ScanCoordinator.DEFAULT_MAX_AGE_MS);
+        assertEquals(Collections.singletonList(false), cached.fresh);
+        assertEquals(scan, cached.results.get(0));
+        assertEquals(1, source.getScansStarted());
+
+        idleScanTasks(1);
+        final RecordingListener expired = request(ScanCoordinator.DEFAULT_MAX_AGE_MS);
+        assertTrue(expired.fresh.isEmpty());
+        assertEquals(2, source.getScansStarted());
+        assertStats(1, 2, 0, 0, 0);
+    }
+
+    @Test
+    public void sharesTheScanInFlight() {
+        final RecordingListener first = request(ScanCoordinator.DEFAULT_MAX_AGE_MS);
+        // A zero max age never gets cached results, but joins the scan in flight
+        final RecordingListener second = request(0);
+        assertEquals(1, source.getScansStarted());
+
+        source.deliver(scan);
+
+        assertEquals(Collections.singletonList(true), first.fresh);
+        assertEquals(Collections.singletonList(true), second.fresh);
+        assertEquals(scan, second.results.get(0));
+        assertEquals(0, source.getReceiverCount());
+        request(0);
+        assertEquals(2, source.getScansStarted());
+        assertStats(0, 3, 1, 0, 0);
+    }
+
+    @Test
+    public void defersTheScanUntilTheQuotaAllowsIt() {
+        useUpTheQuota();
+        final RecordingListener listener = request(0, ScanQuota.WINDOW_MS + TIMEOUT_MS);
+        final RecordingListener coalesced = request(0, ScanQuota.WINDOW_MS + TIMEOUT_MS);
+        assertEquals(0, source.getScansStarted());
+        assertEquals(0, source.getReceiverCount());
+
+        idleScanTasks(ScanQuota.WINDOW_MS);
+        assertEquals(1, source.getScansStarted());
+        source.deliver(scan);
+
+        assertEquals(Collections.singletonList(true), listener.fresh);
+        assertEquals(Collections.singletonList(true), coalesced.fresh);
+        assertStats(0, 2, 1, 1, 0);
+    }
+
+    @Test
+    public void dropsTheDeferredScanWhenEveryRequestTimedOut() {
+        useUpTheQuota();
+        final RecordingListener listener = request(0);
+
+        idleScanTasks(TIMEOUT_MS);
+        assertEquals(Collections.singletonList(false), listener.fresh);
+
+        idleScanTasks(ScanQuota.WINDOW_MS);
+        assertEquals(0, source.getScansStarted());
+        assertStats(0, 1, 0, 1, 1);
+    }
+
+    @Test
+    public void answersATimedOutRequestWithoutStoppingTheScan() {
+        final RecordingListener early = request(0, TIMEOUT_MS);
+        final RecordingListener patient = request(0, 2 * TIMEOUT_MS);
+
+        idleScanTasks(TIMEOUT_MS);
+        assertEquals(Collections.singletonList(false), early.fresh);
+        assertTrue(patient.fresh.isEmpty());
+        assertEquals(1, source.getReceiverCount());
+
+        source.deliver(scan);
+        assertEquals(Collections.singletonList(false), early.fresh);
+        assertEquals(Collections.singletonList(true), patient.fresh);
+        assertStats(0, 2, 1, 0, 1);
+    }
+
+    @Test
+    public void givesUpOnAScanThatNeverCompletes() {
+        final RecordingListener listener = request(0, 2 * SCAN_TIMEOUT_MS);
+
+        idleScanTasks(SCAN_TIMEOUT_MS);
+
+        assertEquals(Collections.singletonList(false), listener.fresh);
+        assertEquals(0, source.getReceiverCount());
+        // The request is answered once, not at its own timeout
+        idleScanTasks(SCAN_TIMEOUT_MS);
+        assertEquals(1, listener.fresh.size());
+        assertStats(0, 1, 0, 0, 0);
+    }
+
+    @Test
+    public void answersARefusedOrFailedScanWithTheLastKnownResults() {
+        source.setAcceptScans(false);
+        final RecordingListener refused = request(0);
+        assertEquals(Collections.singletonList(false), refused.fresh);
+        assertEquals(0, source.getReceiverCount());
+
+        source.setAcceptScans(true);
+        source.deliver(scan);
+        final RecordingListener failed = request(0);
+        source.fail();
+        assertEquals(Collections.singletonList(false), failed.fresh);
+        assertEquals(scan, failed.results.get(0));
+        // A failed scan does not refresh the cache
+        assertTrue(request(ScanCoordinator.DEFAULT_MAX_AGE_MS).fresh.isEmpty());
+        assertStats(0, 3, 0, 2, 0);
+    }
+
+    @Test
+    public void servesTheScansOfASimulatedEnvironment() {
+        final SimulatedScanResultSource simulation = services.simulate(JavaOnlyMap.of("accessPoints", 200, "seed", 42.0));
+        final RecordingListener listener = request(0);
+        assertTrue(listener.fresh.isEmpty());
+
+        idleScanTasks(SimulatedScanResultSource.DEFAULT_SCAN_DELAY_MS);
+
+        assertEquals(Collections.singletonList(true), listener.fresh);
+        assertEquals(200, listener.results.get(0).size());
+        assertEquals(simulation.getScanResults(), listener.results.get(0));
+        simulation.stop();
+    }
+
+    private RecordingListener request(final long maxAgeMs) {
+        return request(maxAgeMs, TIMEOUT_MS);
+    }
+
+    private RecordingListener request(final long maxAgeMs, final long timeoutMs) {
+        final RecordingListener listener = new RecordingListener();
+        coordinator.requestScan(maxAgeMs, timeoutMs, listener);
+        return listener;
+    }
+
+    private void useUpTheQuota() {
+        source.setThrottled(true);
+        for (int i = 0; i < ScanQuota.MAX_SCANS; i++) {
+            scanQuota.recordScan(SystemClock.elapsedRealtime());
+        }
+    }
+
+    /**
+     * Runs the scan tasks due in the given time, the clock moving forward.
+     */
+    private void idleScanTasks(final long ms) {
+        ShadowLooper.idleMainLooper(ms, TimeUnit.MILLISECONDS);
+    }
+
+    private void assertStats(final int hits, final int misses, final int coalesced, final int throttled, final int timeouts) {
+        final ReadableMap stats = coordinator.getStats();
+        assertEquals(hits, stats.getInt("hits"));
+        assertEquals(misses, stats.getInt("misses"));
+        assertEquals(coalesced, stats.getInt("coalesced"));
+        assertEquals(throttled, stats.getInt("throttled"));
+        assertEquals(timeouts, stats.getInt("timeouts"));
+    }
+}
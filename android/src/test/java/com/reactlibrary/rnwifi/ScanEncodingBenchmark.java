@@ -0,0 +1,81 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.wifi.ScanResult;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The throughput of the work done for every scan of the scan stream, on simulated environments of growing size:
+ * the encoding of all the results, of projected fields, of the results of a query, and the diff of two scans.
+ *
+ * Run with `./gradlew test -Pbenchmark`.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ScanEncodingBenchmark {
+
+    private static final int[] SIZES = {100, 1000, 5000};
+    private static final int WARMUPS = 200;
+    private static final int ITERATIONS = 500;
+
+    @Test
+    public void encodeScans() throws Exception {
+        for (final int size : SIZES) {
+            final List<ScanResult> results = TestScanResults.simulated(size, 1);
+            final List<ScanResult> nextResults = TestScanResults.simulated(size, 2);
+            final ScanResultEncoder encoder = new ScanResultEncoder();
+            final ScanResultEncoder projected = new ScanResultEncoder(
+                    ScanResultEncoder.FIELD_SSID | ScanResultEncoder.FIELD_BSSID | ScanResultEncoder.FIELD_LEVEL);
+            final ScanQuery query = ScanQuery.fromReadableMap(JavaOnlyMap.of(
+                    "security", JavaOnlyArray.of("wpa2", "wpa3"), "dedup", true, "limit", 20));
+            final ScanResultDiffer differ = new ScanResultDiffer(5);
+
+            report(size, BenchmarkRunner.run(String.format(Locale.ROOT, "array, all fields, %d results", size),
+                    WARMUPS, ITERATIONS, new BenchmarkRunner.Operation() {
+                        @Override
+                        public Object run() {
+                            return encoder.toWritableArray(results);
+                        }
+                    }));
+            report(size, BenchmarkRunner.run(String.format(Locale.ROOT, "array, 3 fields, %d results", size),
+                    WARMUPS, ITERATIONS, new BenchmarkRunner.Operation() {
+                        @Override
+                        public Object run() {
+                            return projected.toWritableArray(results);
+                        }
+                    }));
+            report(size, BenchmarkRunner.run(String.format(Locale.ROOT, "query and array, %d results", size),
+                    WARMUPS, ITERATIONS, new BenchmarkRunner.Operation() {
+                        @Override
+                        public Object run() {
+                            return encoder.toWritableArray(query.apply(results));
+                        }
+                    }));
+            // Every scan differs from the previous one, as the two environments alternate
+            report(size, BenchmarkRunner.run(String.format(Locale.ROOT, "diff, %d results", size),
+                    WARMUPS, ITERATIONS, new BenchmarkRunner.Operation() {
+                        private boolean next = false;
+
+                        @Override
+                        public Object run() {
+                            next = !next;
+                            return differ.diff(next ? nextResults : results, encoder);
+                        }
+                    }));
+        }
+    }
+
+    private static void report(final int size, final BenchmarkRunner.Result result) {
+        System.out.println(String.format(Locale.ROOT, "%-48s %12.0f results/s", "", result.opsPerSecond() * size));
+        assertTrue(result.nanosPerOp > 0);
+    }
+}
@@ -0,0 +1,123 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.wifi.ScanResult;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+public class ScanQueryTest {
+
+    private static final String WPA2 = "[WPA2-PSK-CCMP][RSN-PSK-CCMP][ESS]";
+    private static final String WPA3 = "[RSN-SAE-CCMP][ESS]";
+    private static final String OPEN = "[ESS]";
+
+    private final List<ScanResult> results = Arrays.asList(
+            TestScanResults.create("cafe", "0a:00:00:00:00:01", WPA2, -70, 2412),
+            TestScanResults.create("cafe", "0a:00:00:00:00:02", WPA2, -50, 5180),
+            TestScanResults.create("cafe-guest", "0a:00:00:00:00:03", OPEN, -60, 2437),
+            TestScanResults.create("office", "0a:00:00:00:00:04", WPA3, -40, 5745),
+            TestScanResults.create("", "0a:00:00:00:00:05", WPA2, -30, 2412),
+            TestScanResults.create("library", "0a:00:00:00:00:06", WPA2, -85, 2462));
+
+    @Test
+    public void sortsTheVisibleResultsStrongestFirst() {
+        final List<ScanResult> matches = apply(new JavaOnlyMap());
+
+        assertEquals(Arrays.asList("0a:00:00:00:00:04", "0a:00:00:00:00:02", "0a:00:00:00:00:03",
+                "0a:00:00:00:00:01", "0a:00:00:00:00:06"), bssids(matches));
+    }
+
+    @Test
+    public void filtersBySsid() {
+        assertEquals(Arrays.asList("0a:00:00:00:00:02", "0a:00:00:00:00:03", "0a:00:00:00:00:01"),
+                bssids(apply(JavaOnlyMap.of("ssidPrefix", "cafe"))));
+        assertEquals(Arrays.asList("0a:00:00:00:00:03"),
+                bssids(apply(JavaOnlyMap.of("ssidPattern", "-guest$"))));
+    }
+
+    @Test
+    public void filtersByBandLevelAndSecurity() {
+        assertEquals(Arrays.asList("0a:00:00:00:00:04", "0a:00:00:00:00:02"),
+                bssids(apply(JavaOnlyMap.of("band", AccessPointSelector.BAND_5_GHZ))));
+        assertEquals(Arrays.asList("0a:00:00:00:00:04", "0a:00:00:00:00:02", "0a:00:00:00:00:03"),
+                bssids(apply(JavaOnlyMap.of("minLevel", -60))));
+        assertEquals(Arrays.asList("0a:00:00:00:00:04", "0a:00:00:00:00:03"),
+                bssids(apply(JavaOnlyMap.of("security", JavaOnlyArray.of("wpa3", "open")))));
+    }
+
+    @Test
+    public void keepsTheStrongestAccessPointOfEverySsid() {
+        final List<ScanResult> matches = apply(JavaOnlyMap.of("dedup", true));
+
+        assertEquals(Arrays.asList("0a:00:00:00:00:04", "0a:00:00:00:00:02", "0a:00:00:00:00:03",
+                "0a:00:00:00:00:06"), bssids(matches));
+    }
+
+    @Test
+    public void keepsTheStrongestResultsUpToTheLimit() {
+        assertEquals(Arrays.asList("0a:00:00:00:00:04", "0a:00:00:00:00:02"),
+                bssids(apply(JavaOnlyMap.of("limit", 2))));
+        assertEquals(Arrays.asList("0a:00:00:00:00:02"),
+                bssids(apply(JavaOnlyMap.of("ssidPrefix", "cafe", "dedup", true, "limit", 1))));
+    }
+
+    @Test
+    public void keepsTheStrongestOfManyResults() {
+        final List<ScanResult> many = TestScanResults.simulated(2000, 1);
+        final List<ScanResult> matches = ScanQuery.fromReadableMap(JavaOnlyMap.of("limit", 10)).apply(many);
+
+        final List<Integer> levels = new ArrayList<>();
+        for (ScanResult result : many) {
+            if (!ScanResultEncoder.isHidden(result)) {
+                levels.add(result.level);
+            }
+        }
+        Collections.sort(levels);
+        assertEquals(10, matches.size());
+        for (int i = 0; i < matches.size(); i++) {
+            assertEquals((int) levels.get(levels.size() - 1 - i), matches.get(i).level);
+        }
+    }
+
+    @Test
+    public void rejectsInvalidQueries() {
+        assertInvalid(JavaOnlyMap.of("band", "60GHz"));
+        assertInvalid(JavaOnlyMap.of("security", JavaOnlyArray.of("wpa2", "wpa4")));
+        assertInvalid(JavaOnlyMap.of("limit", 0));
+    }
+
+    private List<ScanResult> apply(final JavaOnlyMap query) {
+        return ScanQuery.fromReadableMap(query).apply(results);
+    }
+
+    private static List<String> bssids(final List<ScanResult> results) {
+        final List<String> bssids = new ArrayList<>();
+        for (ScanResult result : results) {
+            bssids.add(result.BSSID);
+        }
+        return bssids;
+    }
+
+    private static void assertInvalid(final JavaOnlyMap query) {
+        try {
+            ScanQuery.fromReadableMap(query);
+            fail(String.format("accepted %s", query));
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage() != null);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.reactlibrary.rnwifi;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ScanQuotaTest {
+
+    @Test
+    public void allowsEveryScanWhenNotEnforced() {
+        final ScanQuota quota = new ScanQuota(false);
+        for (int i = 0; i < ScanQuota.MAX_SCANS * 3; i++) {
+            quota.recordScan(i);
+            assertEquals(0, quota.delayUntilNextScan(i));
+        }
+    }
+
+    @Test
+    public void allowsTheFirstScansRightAway() {
+        final ScanQuota quota = new ScanQuota(true);
+        for (int i = 0; i < ScanQuota.MAX_SCANS; i++) {
+            assertEquals(0, quota.delayUntilNextScan(1000 * i));
+            quota.recordScan(1000 * i);
+        }
+    }
+
+    @Test
+    public void delaysTheNextScanUntilTheOldestLeavesTheWindow() {
+        final ScanQuota quota = new ScanQuota(true);
+        quota.recordScan(0);
+        quota.recordScan(10);
+        quota.recordScan(20);
+        quota.recordScan(30);
+
+        assertEquals(ScanQuota.WINDOW_MS - 40, quota.delayUntilNextScan(40));
+        assertEquals(0, quota.delayUntilNextScan(ScanQuota.WINDOW_MS));
+
+        quota.recordScan(ScanQuota.WINDOW_MS);
+        // The oldest scan is now the one at 10
+        assertEquals(10, quota.delayUntilNextScan(ScanQuota.WINDOW_MS));
+    }
+}
@@ -0,0 +1,233 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.wifi.ScanResult;
+
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Records scans with {@link ScanRecorder} and reads them back through {@link ScanLogReader}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ScanRecorderTest {
+
+    private static final long TIMEOUT_MS = 5000;
+    private static final String CAPABILITIES = "[WPA2-PSK-CCMP][ESS]";
+
+    private FakeSystemServices services;
+    private ScanRecorder recorder;
+
+    private final List<ScanResult> firstScan = Arrays.asList(
+            TestScanResults.create("home", "0a:1b:2c:3d:4e:5f", CAPABILITIES, -50, 2412),
+            TestScanResults.create("caf\u00e9", "0a:1b:2c:3d:4e:60", CAPABILITIES, -128, 5180));
+    private final List<ScanResult> secondScan = Arrays.asList(
+            TestScanResults.create("home", "0a:1b:2c:3d:4e:5f", CAPABILITIES, -55, 2412),
+            TestScanResults.create("", "ff:ff:ff:ff:ff:ff", CAPABILITIES, -90, 5745));
+    private final List<ScanResult> thirdScan = Arrays.asList(
+            TestScanResults.create("office", "0a:00:00:00:00:01", CAPABILITIES, -40, 5200));
+
+    @Before
+    public void setUp() {
+        services = new FakeSystemServices(RuntimeEnvironment.application);
+        recorder = new ScanRecorder(RuntimeEnvironment.application, services);
+    }
+
+    @After
+    public void tearDown() {
+        recorder.shutdown();
+    }
+
+    @Test
+    public void readsTheRecordedScansBack() {
+        record("survey", firstScan, secondScan, thirdScan);
+
+        final ReadableMap page = read("survey", 0, 10);
+        final ReadableArray scans = page.getArray("scans");
+
+        assertTrue(page.getBoolean("done"));
+        assertEquals(3, scans.size());
+        assertScan(firstScan, scans.getMap(0));
+        assertScan(secondScan, scans.getMap(1));
+        assertScan(thirdScan, scans.getMap(2));
+        assertTrue(scans.getMap(0).getDouble("time") <= scans.getMap(2).getDouble("time"));
+    }
+
+    @Test
+    public void readsThePagesFromTheirCursor() {
+        record("survey", firstScan, secondScan, thirdScan);
+
+        final ReadableMap first = read("survey", 0, 2);
+        final ReadableMap second = read("survey", (long) first.getDouble("cursor"), 2);
+
+        assertFalse(first.getBoolean("done"));
+        assertEquals(2, first.getArray("scans").size());
+        assertTrue(second.getBoolean("done"));
+        assertEquals(1, second.getArray("scans").size());
+        assertScan(thirdScan, second.getArray("scans").getMap(0));
+
+        // A cursor of another page is read again from the start of the log
+        final ReadableMap again = read("survey", (long) first.getDouble("cursor"), 2);
+        assertScan(thirdScan, again.getArray("scans").getMap(0));
+        final ReadableMap restart = read("survey", 0, 1);
+        assertScan(firstScan, restart.getArray("scans").getMap(0));
+    }
+
+    @Test
+    public void readsALogRecordedAgainUnderTheSameName() {
+        record("survey", firstScan);
+        final ReadableMap page = read("survey", 0, 10);
+
+        // The same sizes as the first log, with other SSIDs
+        final List<ScanResult> renamedScan = Arrays.asList(
+                TestScanResults.create("work", "0a:1b:2c:3d:4e:5f", CAPABILITIES, -50, 2412),
+                TestScanResults.create("hotel", "0a:1b:2c:3d:4e:60", CAPABILITIES, -128, 5180));
+        final List<ScanResult> nextScan = Collections.singletonList(
+                TestScanResults.create("work", "0a:00:00:00:00:01", CAPABILITIES, -40, 5200));
+        record("survey", renamedScan, nextScan);
+        final ReadableMap next = read("survey", (long) page.getDouble("cursor"), 10);
+
+        assertEquals(1, next.getArray("scans").size());
+        assertScan(nextScan, next.getArray("scans").getMap(0));
+    }
+
+    @Test
+    public void leavesAPartialRecordForTheNextPage() throws IOException {
+        record("survey", firstScan, secondScan, thirdScan);
+        final byte[] log = readFile(fileOf("survey"));
+        final byte[] head = Arrays.copyOf(log, log.length - 5);
+        final byte[] tail = Arrays.copyOfRange(log, log.length - 5, log.length);
+        writeFile(fileOf("partial"), head, false);
+
+        final ReadableMap page = read("partial", 0, 10);
+
+        assertTrue(page.getBoolean("done"));
+        assertEquals(2, page.getArray("scans").size());
+
+        // The rest of the record is written, the page starts with it
+        writeFile(fileOf("partial"), tail, true);
+        final ReadableMap next = read("partial", (long) page.getDouble("cursor"), 10);
+
+        assertTrue(next.getBoolean("done"));
+        assertEquals(1, next.getArray("scans").size());
+        assertScan(thirdScan, next.getArray("scans").getMap(0));
+    }
+
+    @Test
+    public void readsAScanLargerThanTheBuffer() {
+        // About 10 bytes per result, more than the 64 KB buffer of the reader
+        final List<ScanResult> largeScan = TestScanResults.simulated(10000, 1);
+        record("survey", firstScan, largeScan, thirdScan);
+
+        final ReadableMap page = read("survey", 0, 10);
+        final ReadableArray scans = page.getArray("scans");
+
+        assertEquals(3, scans.size());
+        assertScan(largeScan, scans.getMap(1));
+        assertScan(thirdScan, scans.getMap(2));
+    }
+
+    @Test
+    public void rejectsAMissingLogAndAnInvalidCursor() {
+        final Promise missing = mock(Promise.class);
+        recorder.read("missing", 0, 10, missing);
+        verify(missing, timeout(TIMEOUT_MS)).reject(eq("recordingNotFound"), any(String.class));
+
+        record("survey", firstScan);
+        final Promise invalid = mock(Promise.class);
+        recorder.read("survey", 1, 10, invalid);
+        verify(invalid, timeout(TIMEOUT_MS)).reject(eq("recordingFailed"), any(Throwable.class));
+    }
+
+    @Test
+    public void convertsBssids() {
+        assertEquals(0x0a1b2c3d4e5fL, ScanRecorder.bssidToLong("0a:1b:2c:3d:4e:5f"));
+        assertEquals(0, ScanRecorder.bssidToLong(null));
+        assertEquals(0, ScanRecorder.bssidToLong("0a:1b:2c"));
+        assertEquals(0, ScanRecorder.bssidToLong("zz:1b:2c:3d:4e:5f"));
+        assertEquals(0xffffffffffffL, ScanRecorder.bssidToLong("FF:FF:FF:FF:FF:FF"));
+    }
+
+    @SafeVarargs
+    private final void record(final String name, final List<ScanResult>... scans) {
+        final Promise started = mock(Promise.class);
+        recorder.start(name, started);
+        awaitResolved(started);
+        for (List<ScanResult> scan : scans) {
+            services.fakeScanResults().deliver(scan);
+        }
+        final Promise stopped = mock(Promise.class);
+        recorder.stop(stopped);
+        final ReadableMap stats = (ReadableMap) awaitResolved(stopped);
+        assertEquals(scans.length, stats.getInt("scans"));
+        assertEquals(0, stats.getInt("dropped"));
+    }
+
+    private ReadableMap read(final String name, final long cursor, final int limit) {
+        final Promise promise = mock(Promise.class);
+        recorder.read(name, cursor, limit, promise);
+        return (ReadableMap) awaitResolved(promise);
+    }
+
+    private static Object awaitResolved(final Promise promise) {
+        final ArgumentCaptor<Object> value = ArgumentCaptor.forClass(Object.class);
+        verify(promise, timeout(TIMEOUT_MS)).resolve(value.capture());
+        return value.getValue();
+    }
+
+    private static void assertScan(final List<ScanResult> expected, final ReadableMap scan) {
+        final ReadableArray results = scan.getArray("results");
+        assertEquals(expected.size(), results.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final ScanResult result = expected.get(i);
+            final ReadableMap read = results.getMap(i);
+            assertEquals(result.SSID, read.getString("SSID"));
+            assertEquals(result.BSSID, read.getString("BSSID"));
+            assertEquals(Math.max(Byte.MIN_VALUE, result.level), read.getInt("level"));
+            assertEquals(result.frequency, read.getInt("frequency"));
+        }
+    }
+
+    private static File fileOf(final String name) {
+        return new File(new File(RuntimeEnvironment.application.getFilesDir(), "scan-recordings"), name + ".rnws");
+    }
+
+    private static byte[] readFile(final File file) throws IOException {
+        try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            final byte[] bytes = new byte[(int) input.length()];
+            input.readFully(bytes);
+            return bytes;
+        }
+    }
+
+    private static void writeFile(final File file, final byte[] bytes, final boolean append) throws IOException {
+        try (FileOutputStream output = new FileOutputStream(file, append)) {
+            output.write(bytes);
+        }
+    }
+}
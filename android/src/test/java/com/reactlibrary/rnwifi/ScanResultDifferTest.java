@@ -0,0 +1,108 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.wifi.ScanResult;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(RobolectricTestRunner.class)
+public class ScanResultDifferTest {
+
+    private static final String CAPABILITIES = "[WPA2-PSK-CCMP][ESS]";
+    private static final String HOME = "0a:00:00:00:00:01";
+    private static final String OFFICE = "0a:00:00:00:00:02";
+
+    private final ScanResultEncoder encoder = new ScanResultEncoder();
+    private final ScanResultDiffer differ = new ScanResultDiffer(5);
+
+    @Test
+    public void reportsEveryVisibleResultAsAddedFirst() {
+        final WritableMap delta = differ.diff(Arrays.asList(
+                result("home", HOME, -50),
+                result("office", OFFICE, -60),
+                // Hidden, and a duplicate BSSID
+                result("", "0a:00:00:00:00:03", -40),
+                result("home", HOME, -45)), encoder);
+
+        assertNotNull(delta);
+        assertEquals(Arrays.asList(HOME, OFFICE), bssids(delta.getArray("added")));
+        assertEquals(-50, delta.getArray("added").getMap(0).getInt("level"));
+        assertEquals(0, delta.getArray("removed").size());
+        assertEquals(0, delta.getArray("changed").size());
+    }
+
+    @Test
+    public void reportsNothingWhenNothingChanged() {
+        differ.diff(Arrays.asList(result("home", HOME, -50)), encoder);
+
+        assertNull(differ.diff(Arrays.asList(result("home", HOME, -50)), encoder));
+        assertNull(differ.diff(Arrays.asList(result("home", HOME, -45)), encoder));
+    }
+
+    @Test
+    public void reportsADriftOnceItExceedsTheHysteresis() {
+        differ.diff(Arrays.asList(result("home", HOME, -50)), encoder);
+
+        assertNull(differ.diff(Arrays.asList(result("home", HOME, -53)), encoder));
+        assertNull(differ.diff(Arrays.asList(result("home", HOME, -55)), encoder));
+        // 6 dBm away from the reported level, although 1 dBm from the previous scan
+        final WritableMap delta = differ.diff(Arrays.asList(result("home", HOME, -56)), encoder);
+
+        assertNotNull(delta);
+        assertEquals(Arrays.asList(HOME), bssids(delta.getArray("changed")));
+        assertEquals(-56, delta.getArray("changed").getMap(0).getInt("level"));
+        assertEquals(0, delta.getArray("added").size());
+        // Measured from the new reported level
+        assertNull(differ.diff(Arrays.asList(result("home", HOME, -60)), encoder));
+    }
+
+    @Test
+    public void reportsTheRemovedResults() {
+        differ.diff(Arrays.asList(result("home", HOME, -50), result("office", OFFICE, -60)), encoder);
+
+        final WritableMap delta = differ.diff(Arrays.asList(result("home", HOME, -50)), encoder);
+
+        assertNotNull(delta);
+        assertEquals(OFFICE, delta.getArray("removed").getString(0));
+        assertEquals(1, delta.getArray("removed").size());
+        assertEquals(0, delta.getArray("added").size());
+        // Added again once back
+        final WritableMap back = differ.diff(Arrays.asList(result("home", HOME, -50), result("office", OFFICE, -60)), encoder);
+        assertNotNull(back);
+        assertEquals(Arrays.asList(OFFICE), bssids(back.getArray("added")));
+    }
+
+    @Test
+    public void reportsAResultHiddenSinceAsRemoved() {
+        differ.diff(Arrays.asList(result("home", HOME, -50)), encoder);
+
+        final WritableMap delta = differ.diff(Arrays.asList(result("", HOME, -50)), encoder);
+
+        assertNotNull(delta);
+        assertEquals(HOME, delta.getArray("removed").getString(0));
+    }
+
+    private static ScanResult result(final String ssid, final String bssid, final int level) {
+        return TestScanResults.create(ssid, bssid, CAPABILITIES, level, 2412);
+    }
+
+    private static List<String> bssids(final ReadableArray results) {
+        final List<String> bssids = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            bssids.add(results.getMap(i).getString("BSSID"));
+        }
+        return bssids;
+    }
+}
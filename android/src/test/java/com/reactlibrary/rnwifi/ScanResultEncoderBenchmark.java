@@ -0,0 +1,74 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.wifi.ScanResult;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The allocations of a continuous scan, encoded every time: the JSONObject loop that loadWifiList and WifiReceiver
+ * had, against the shared {@link ScanResultEncoder} with all the fields, and with SSID and level only. Like JMH,
+ * the operations are warmed up, then measured over several rounds.
+ *
+ * Run with `./gradlew test -Pbenchmark`.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ScanResultEncoderBenchmark {
+
+    private static final int RESULTS = 1000;
+    private static final int ROUNDS = 5;
+    private static final int WARMUPS = 500;
+    private static final int ITERATIONS = 500;
+
+    @Test
+    public void allocatesLessThanTheJsonObjectLoop() throws Exception {
+        final List<ScanResult> results = TestScanResults.simulated(RESULTS, 1);
+        final ScanResultEncoder encoder = new ScanResultEncoder();
+        final ScanResultEncoder projected =
+                new ScanResultEncoder(ScanResultEncoder.FIELD_SSID | ScanResultEncoder.FIELD_LEVEL);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            final BenchmarkRunner.Result legacy = run(String.format(Locale.ROOT, "JSONObject loop, round %d", round),
+                    new BenchmarkRunner.Operation() {
+                        @Override
+                        public Object run() throws Exception {
+                            return LegacyScanResultJson.toJson(results);
+                        }
+                    });
+            final BenchmarkRunner.Result all = run(String.format(Locale.ROOT, "encoder, round %d", round),
+                    new BenchmarkRunner.Operation() {
+                        @Override
+                        public Object run() {
+                            return encoder.toJson(results);
+                        }
+                    });
+            final BenchmarkRunner.Result ssidAndLevel = run(String.format(Locale.ROOT, "encoder, SSID and level, round %d", round),
+                    new BenchmarkRunner.Operation() {
+                        @Override
+                        public Object run() {
+                            return projected.toJson(results);
+                        }
+                    });
+
+            Assume.assumeTrue("the JVM does not count the allocated bytes", legacy.bytesPerOp >= 0);
+            // Although it also writes the parsed capabilities
+            assertTrue(all.bytesPerOp < legacy.bytesPerOp);
+            assertTrue(ssidAndLevel.bytesPerOp < all.bytesPerOp);
+        }
+    }
+
+    private static BenchmarkRunner.Result run(final String name, final BenchmarkRunner.Operation operation) throws Exception {
+        final BenchmarkRunner.Result result = BenchmarkRunner.run(name, WARMUPS, ITERATIONS, operation);
+        // The allocation rate of a scan encoded back to back
+        System.out.println(String.format(Locale.ROOT, "%-48s %12.1f MB/s", "",
+                result.bytesPerOp * result.opsPerSecond() / (1024 * 1024)));
+        return result;
+    }
+}
@@ -0,0 +1,149 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.wifi.ScanResult;
+import android.os.SystemClock;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * The receiver, scans and events of {@link ScanStream}, the scans completing when the test delivers them.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ScanStreamTest {
+
+    private static final String CAPABILITIES = "[WPA2-PSK-CCMP][ESS]";
+
+    private FakeSystemServices services;
+    private EventRecordingContext context;
+    private ScanQuota scanQuota;
+    private ScanStream stream;
+
+    private final List<ScanResult> scan = Arrays.asList(
+            TestScanResults.create("home", "0a:1b:2c:3d:4e:5f", CAPABILITIES, -50, 2412),
+            TestScanResults.create("office", "0a:00:00:00:00:01", CAPABILITIES, -40, 5200));
+
+    @Before
+    public void setUp() {
+        services = new FakeSystemServices(RuntimeEnvironment.application);
+        context = new EventRecordingContext(RuntimeEnvironment.application);
+        scanQuota = new ScanQuota(true);
+        stream = new ScanStream(context, services, scanQuota);
+    }
+
+    @After
+    public void tearDown() {
+        stream.stop();
+        services.quitScanThread();
+    }
+
+    @Test
+    public void keepsASingleReceiverWhileRunning() {
+        stream.start(null);
+        stream.start(JavaOnlyMap.of("interval", 5000.0));
+        assertEquals(1, services.fakeScanResults().getReceiverCount());
+
+        stream.stop();
+        assertEquals(0, services.fakeScanResults().getReceiverCount());
+        stream.stop();
+        assertEquals(0, services.fakeScanResults().getReceiverCount());
+    }
+
+    @Test
+    public void sendsTheLastKnownResultsThenTheResultsOfEveryScan() {
+        stream.start(null);
+        idleScanThread();
+        assertEquals(0, emittedResults(1).size());
+        assertEquals(1, services.fakeScanResults().getScansStarted());
+
+        services.fakeScanResults().deliver(scan);
+        assertEquals(2, emittedResults(2).size());
+
+        stream.stop();
+        services.fakeScanResults().deliver(scan);
+        emittedResults(2);
+    }
+
+    @Test
+    public void sendsTheParsedCapabilitiesOnlyWhenRequested() {
+        stream.start(null);
+        services.fakeScanResults().deliver(scan);
+        final ReadableMap plain = emittedResults(1).getMap(0);
+        assertEquals("home", plain.getString("SSID"));
+        assertTrue(plain.hasKey("timestamp"));
+        assertFalse(plain.hasKey("security"));
+        assertFalse(plain.hasKey("channelWidth"));
+
+        stream.start(JavaOnlyMap.of("fields", JavaOnlyArray.of("SSID", "security", "ciphers")));
+        services.fakeScanResults().deliver(scan);
+        final ReadableMap parsed = emittedResults(2).getMap(0);
+        assertEquals("home", parsed.getString("SSID"));
+        assertEquals("wpa2", parsed.getArray("security").getString(0));
+        assertEquals("ccmp", parsed.getArray("ciphers").getString(0));
+        assertFalse(parsed.hasKey("level"));
+    }
+
+    @Test
+    public void defersTheScanWhenTheQuotaIsUsedUp() {
+        services.fakeScanResults().setThrottled(true);
+        for (int i = 0; i < ScanQuota.MAX_SCANS; i++) {
+            scanQuota.recordScan(SystemClock.elapsedRealtime());
+        }
+
+        stream.start(null);
+        idleScanThread();
+
+        assertEquals(0, services.fakeScanResults().getScansStarted());
+        // The results of the scans of others are still sent
+        services.fakeScanResults().deliver(scan);
+        assertEquals(2, emittedResults(2).size());
+    }
+
+    @Test
+    public void goesOnAfterARefusedScan() {
+        services.fakeScanResults().setAcceptScans(false);
+
+        stream.start(JavaOnlyMap.of("interval", 5000.0));
+        idleScanThread();
+
+        assertEquals(1, services.fakeScanResults().getScansStarted());
+        assertEquals(1, services.fakeScanResults().getReceiverCount());
+    }
+
+    /**
+     * Runs the tasks due on the scan thread.
+     */
+    private void idleScanThread() {
+        shadowOf(services.scanHandler().getLooper()).idle();
+    }
+
+    /**
+     * @return the last results sent, checking the number of events so far
+     */
+    private ReadableArray emittedResults(final int events) {
+        final ArgumentCaptor<Object> results = ArgumentCaptor.forClass(Object.class);
+        verify(context.emitter, times(events)).emit(eq(RNWifiEvents.SCAN_RESULTS), results.capture());
+        return (ReadableArray) results.getValue();
+    }
+}
@@ -0,0 +1,247 @@
+package com.reactlibrary.rnwifi;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.net.wifi.ScanResult;
+import android.net.wifi.WifiManager;
+import android.os.Handler;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.ReadableMap;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A seeded, simulated radio environment, to load the scan pipeline with many access points and frequent scans
+ * without a device. The same options and seed always give the same sequence of scans.
+ *
+ * Several access points share each SSID, some hide it, every scan replaces a part of them (churn) and adds some
+ * jitter to their level. Besides the requested scans, the environment can also be scanned every `interval`
+ * milliseconds, like the system does on its own. Its scans are not subject to the scan quota.
+ *
+ * The scan results are created through the hidden ScanResult constructor, which is why the simulation only runs in
+ * the tests, see {@link FakeSystemServices#simulate}.
+ */
+class SimulatedScanResultSource implements ScanResultSource {
+
+    static final int DEFAULT_ACCESS_POINTS = 100;
+    static final double DEFAULT_CHURN = 0.05;
+    static final double DEFAULT_HIDDEN = 0.05;
+    static final int DEFAULT_RSSI_JITTER = 3;
+    static final long DEFAULT_SCAN_DELAY_MS = 100;
+
+    private static final int[] FREQUENCIES = {2412, 2437, 2462, 5180, 5200, 5220, 5240, 5745, 5765, 5785, 5805};
+    private static final String[] CAPABILITIES = {
+            "[WPA2-PSK-CCMP][RSN-PSK-CCMP][ESS]",
+            "[WPA2-PSK-CCMP][RSN-PSK-CCMP][ESS][WPS]",
+            "[WPA-PSK-TKIP][WPA2-PSK-CCMP+TKIP][RSN-PSK-CCMP+TKIP][ESS]",
+            "[RSN-SAE-CCMP][ESS]",
+            "[WPA2-EAP-CCMP][RSN-EAP-CCMP][ESS]",
+            "[ESS]",
+    };
+
+    private static final class AccessPoint {
+        String bssid;
+        String ssid;
+        int baseLevel;
+        int frequency;
+        String capabilities;
+    }
+
+    private final Context context;
+    private final Handler handler;
+    private final Constructor<ScanResult> scanResultConstructor;
+    private final Random random;
+    private final int ssids;
+    private final double churn;
+    private final double hidden;
+    private final int rssiJitter;
+    private final long scanDelayMs;
+    private final long intervalMs;
+
+    private final List<AccessPoint> accessPoints = new ArrayList<>();
+    private final List<BroadcastReceiver> receivers = new ArrayList<>();
+    private List<ScanResult> results = Collections.emptyList();
+    private long nextBssid = 0;
+    private boolean scanPending = false;
+
+    private final Runnable completeScan = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (SimulatedScanResultSource.this) {
+                scanPending = false;
+            }
+            scan();
+        }
+    };
+
+    private final Runnable periodicScan = new Runnable() {
+        @Override
+        public void run() {
+            scan();
+            handler.postDelayed(this, intervalMs);
+        }
+    };
+
+    /**
+     * @param options `seed`, `accessPoints` (default 100), `ssids`, the number of distinct SSIDs (default a quarter
+     *                of the access points), `churn`, the share of access points replaced by every scan (default 0.05),
+     *                `hidden`, the share of hidden SSIDs (default 0.05), `rssiJitter` in dBm (default 3),
+     *                `scanDelay`, the milliseconds a requested scan takes (default 100), and `interval`, the
+     *                milliseconds between unrequested scans (default 0, none)
+     * @param handler the handler the scans are simulated and the receivers called on, the one of the scan thread
+     * @throws IllegalArgumentException if an option is out of range
+     * @throws UnsupportedOperationException if scan results cannot be created on this device
+     */
+    SimulatedScanResultSource(@NonNull final Context context, @NonNull final Handler handler, @Nullable final ReadableMap options) {
+        this.context = context;
+        this.handler = handler;
+        scanResultConstructor = scanResultConstructor();
+        final int accessPointCount = intOption(options, "accessPoints", DEFAULT_ACCESS_POINTS);
+        ssids = intOption(options, "ssids", Math.max(1, accessPointCount / 4));
+        churn = doubleOption(options, "churn", DEFAULT_CHURN);
+        hidden = doubleOption(options, "hidden", DEFAULT_HIDDEN);
+        rssiJitter = intOption(options, "rssiJitter", DEFAULT_RSSI_JITTER);
+        scanDelayMs = (long) doubleOption(options, "scanDelay", DEFAULT_SCAN_DELAY_MS);
+        intervalMs = (long) doubleOption(options, "interval", 0);
+        if (accessPointCount < 0 || ssids < 1 || churn < 0 || churn > 1 || hidden < 0 || hidden > 1
+                || rssiJitter < 0 || scanDelayMs < 0 || intervalMs < 0) {
+            throw new IllegalArgumentException("simulation option out of range");
+        }
+        random = new Random((long) doubleOption(options, "seed", 0));
+        for (int i = 0; i < accessPointCount; i++) {
+            accessPoints.add(newAccessPoint());
+        }
+        results = buildResults();
+    }
+
+    @NonNull
+    @Override
+    public synchronized List<ScanResult> getScanResults() {
+        return results;
+    }
+
+    @Override
+    public synchronized boolean startScan() {
+        // Like the platform, a scan requested while another one is running joins it
+        if (!scanPending) {
+            scanPending = true;
+            handler.postDelayed(completeScan, scanDelayMs);
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void registerReceiver(@NonNull final BroadcastReceiver receiver) {
+        receivers.add(receiver);
+        if (receivers.size() == 1 && intervalMs > 0) {
+            handler.postDelayed(periodicScan, intervalMs);
+        }
+    }
+
+    @Override
+    public synchronized void unregisterReceiver(@NonNull final BroadcastReceiver receiver) {
+        receivers.remove(receiver);
+        if (receivers.isEmpty()) {
+            handler.removeCallbacks(periodicScan);
+        }
+    }
+
+    @Override
+    public boolean isThrottled() {
+        return false;
+    }
+
+    synchronized void stop() {
+        receivers.clear();
+        scanPending = false;
+        handler.removeCallbacks(completeScan);
+        handler.removeCallbacks(periodicScan);
+    }
+
+    private void scan() {
+        final List<BroadcastReceiver> notified;
+        synchronized (this) {
+            final int replaced = (int) Math.round(accessPoints.size() * churn);
+            for (int i = 0; i < replaced; i++) {
+                accessPoints.set(random.nextInt(accessPoints.size()), newAccessPoint());
+            }
+            results = buildResults();
+            notified = new ArrayList<>(receivers);
+        }
+        final Intent intent = new Intent(WifiManager.SCAN_RESULTS_AVAILABLE_ACTION);
+        intent.putExtra(WifiManager.EXTRA_RESULTS_UPDATED, true);
+        for (BroadcastReceiver receiver : notified) {
+            receiver.onReceive(context, intent);
+        }
+    }
+
+    private List<ScanResult> buildResults() {
+        // Like the WifiManager, every scan gives new objects
+        final List<ScanResult> scanResults = new ArrayList<>(accessPoints.size());
+        final long timestamp = SystemClock.elapsedRealtime() * 1000;
+        for (AccessPoint accessPoint : accessPoints) {
+            final ScanResult result = newScanResult();
+            result.SSID = accessPoint.ssid;
+            result.BSSID = accessPoint.bssid;
+            result.capabilities = accessPoint.capabilities;
+            result.frequency = accessPoint.frequency;
+            final int jitter = rssiJitter > 0 ? random.nextInt(2 * rssiJitter + 1) - rssiJitter : 0;
+            result.level = Math.max(-100, Math.min(-20, accessPoint.baseLevel + jitter));
+            result.timestamp = timestamp;
+            scanResults.add(result);
+        }
+        return Collections.unmodifiableList(scanResults);
+    }
+
+    private AccessPoint newAccessPoint() {
+        final AccessPoint accessPoint = new AccessPoint();
+        // Locally administered addresses, unique for the simulation
+        final long bssid = 0x020000000000L | nextBssid++;
+        accessPoint.bssid = String.format("%02x:%02x:%02x:%02x:%02x:%02x",
+                (bssid >> 40) & 0xff, (bssid >> 32) & 0xff, (bssid >> 24) & 0xff,
+                (bssid >> 16) & 0xff, (bssid >> 8) & 0xff, bssid & 0xff);
+        accessPoint.ssid = random.nextDouble() < hidden ? "" : String.format("SimNet-%d", random.nextInt(ssids));
+        accessPoint.baseLevel = -90 + random.nextInt(60);
+        accessPoint.frequency = FREQUENCIES[random.nextInt(FREQUENCIES.length)];
+        accessPoint.capabilities = CAPABILITIES[random.nextInt(CAPABILITIES.length)];
+        return accessPoint;
+    }
+
+    private ScanResult newScanResult() {
+        try {
+            return scanResultConstructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("cannot create scan results", e);
+        }
+    }
+
+    /**
+     * ScanResult has a no-arg constructor since the first versions, only made public by Android 11.
+     */
+    private static Constructor<ScanResult> scanResultConstructor() {
+        try {
+            final Constructor<ScanResult> constructor = ScanResult.class.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException | SecurityException e) {
+            throw new UnsupportedOperationException("cannot create scan results", e);
+        }
+    }
+
+    private static int intOption(final ReadableMap options, final String name, final int defaultValue) {
+        return options != null && options.hasKey(name) && !options.isNull(name) ? options.getInt(name) : defaultValue;
+    }
+
+    private static double doubleOption(final ReadableMap options, final String name, final double defaultValue) {
+        return options != null && options.hasKey(name) && !options.isNull(name) ? options.getDouble(name) : defaultValue;
+    }
+}
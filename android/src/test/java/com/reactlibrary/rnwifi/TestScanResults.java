@@ -0,0 +1,37 @@
+package com.reactlibrary.rnwifi;
+
+import android.net.wifi.ScanResult;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import com.facebook.react.bridge.JavaOnlyMap;
+
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowScanResult;
+
+import java.util.List;
+
+/**
+ * Scan results for the tests: single ones, or many of the simulated environment.
+ */
+final class TestScanResults {
+
+    private TestScanResults() {
+    }
+
+    static ScanResult create(final String ssid, final String bssid, final String capabilities, final int level, final int frequency) {
+        final ScanResult result = ShadowScanResult.newInstance(ssid, bssid, capabilities, level, frequency);
+        result.timestamp = SystemClock.elapsedRealtime() * 1000;
+        return result;
+    }
+
+    /**
+     * @return the results of the first scan of a simulated environment of the given size, the same for a seed
+     */
+    static List<ScanResult> simulated(final int accessPoints, final long seed) {
+        final SimulatedScanResultSource source = new SimulatedScanResultSource(RuntimeEnvironment.application,
+                new Handler(Looper.getMainLooper()), JavaOnlyMap.of("accessPoints", accessPoints, "seed", (double) seed));
+        return source.getScanResults();
+    }
+}
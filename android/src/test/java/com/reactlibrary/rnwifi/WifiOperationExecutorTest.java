@@ -0,0 +1,96 @@
+package com.reactlibrary.rnwifi;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class WifiOperationExecutorTest {
+
+    private static final long TIMEOUT_S = 5;
+    private static final int READ_THREADS = 3;
+    // The read threads and their queue
+    private static final int READ_CAPACITY = READ_THREADS + 16;
+
+    private final WifiOperationExecutor executor = new WifiOperationExecutor();
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void runsAWriteBeforeTheQueriesQueuedBehindIt() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(READ_CAPACITY + 1);
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        for (int i = 0; i < READ_CAPACITY; i++) {
+            executor.read(new Runnable() {
+                @Override
+                public void run() {
+                    await(release);
+                    order.add("read");
+                    done.countDown();
+                }
+            });
+        }
+        try {
+            executor.read(record(order, "rejected", done));
+            fail("The queries queue should be full");
+        } catch (RejectedExecutionException expected) {
+            // Only the queries queue is full
+        }
+
+        executor.write(record(order, "write", done));
+        awaitWaitingThread("RNWifi-operation-" + (READ_THREADS + 1));
+        release.countDown();
+
+        assertTrue(done.await(TIMEOUT_S, TimeUnit.SECONDS));
+        // Only the queries running when it came ran before it
+        assertEquals(READ_THREADS, order.indexOf("write"));
+        assertEquals(READ_CAPACITY + 1, order.size());
+    }
+
+    private static Runnable record(final List<String> order, final String name, final CountDownLatch done) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                order.add(name);
+                done.countDown();
+            }
+        };
+    }
+
+    /**
+     * Waits for the thread to wait, for the lock here.
+     */
+    private static void awaitWaitingThread(final String name) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_S);
+        while (System.nanoTime() < deadline) {
+            for (Thread thread : Thread.getAllStackTraces().keySet()) {
+                if (name.equals(thread.getName()) && thread.getState() == Thread.State.WAITING) {
+                    return;
+                }
+            }
+            Thread.sleep(1);
+        }
+        fail(name + " is not waiting");
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT_S, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
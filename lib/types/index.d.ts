@@ -6,6 +6,19 @@ declare module 'react-native-wifi-reborn' {
         frequency: number;
         level: number;
         timestamp: number;
+        // The following fields are only sent by `startScanStream` when requested in `fields`.
+        // Android only. Parsed from `capabilities`, several for transition networks.
+        security?: WiFiSecurity[];
+        // Android only. Parsed from `capabilities`.
+        ciphers?: ('ccmp' | 'tkip' | 'gcmp')[];
+        // Android only. Parsed from `capabilities`.
+        wps?: boolean;
+        // Android only. Infrastructure network, parsed from `capabilities`.
+        ess?: boolean;
+        // Android only. Ad-hoc network, parsed from `capabilities`.
+        ibss?: boolean;
+        // Android 6+ only. Channel width in MHz, 80+80 MHz being reported as 160.
+        channelWidth?: number;
     };
 
     export type Errors = Partial<{
@@ -31,6 +44,53 @@ declare module 'react-native-wifi-reborn' {
         isWEP: boolean
     ): Promise<void>;
 
+    export type ConnectOptions = {
+        ssid: string;
+        // `null` for open networks.
+        password: string | null;
+        // Used on iOS. If `true`, the network is WEP Wi-Fi; otherwise it is a WPA or WPA2 personal Wi-Fi network.
+        isWep?: boolean;
+        // Android only. Milliseconds to wait for the connection, 10000 by default.
+        timeout?: number;
+        // Android 10+ only. `broadcast` (default) waits for the network state broadcast and checks the connected SSID,
+        // `callback` resolves as soon as the requested network has an address.
+        verification?: 'broadcast' | 'callback';
+        // Android 10+ only. `supersede` (default) rejects the connection in progress with `superseded`,
+        // `queue` waits for it to settle.
+        whenBusy?: 'supersede' | 'queue';
+        // Android 10+ only. `false` leaves the app on the default network, the connected one being only used
+        // through `fetchOverNetwork`. `true` by default.
+        bindProcess?: boolean;
+        // Android 10+ only. Access point to connect to. By default, the strongest one with this SSID in the scan
+        // results of the last 30 seconds is picked, the connection being retried once without it if it cannot be reached.
+        bssid?: string;
+        // Android 10+ only. Mask of the `bssid` bits to match, to connect to any access point of a range.
+        bssidMask?: string;
+        // Android 10+ only. `open` without password and `wpa2` with one by default. `owe` is enhanced open.
+        security?: 'open' | 'owe' | 'wpa2' | 'wpa3';
+        // Android 10+ only. Band to pick the strongest access point from.
+        band?: '2.4GHz' | '5GHz' | '6GHz';
+    };
+
+    /**
+     * Milliseconds spent in each phase of the connection, and in `total`.
+     * The phases are `permissions`, `requestNetwork`, `available`, `bind` and `verify` on Android 10+,
+     * `permissions` and `connect` on older versions.
+     */
+    export type ConnectTimings = { [phase: string]: number };
+
+    export type ConnectResult = {
+        // Android only.
+        timings: ConnectTimings;
+        // Android 10+ only. To pass to `disconnectNetwork`.
+        handle?: number;
+    };
+
+    /**
+     * Same as `connectToProtectedSSID`, with the parameters passed as an object.
+     */
+    export function connectToProtectedWifiSSID(options: ConnectOptions): Promise<ConnectResult>;
+
     export function getCurrentWifiSSID(): Promise<string>;
 
     //#region iOS only
@@ -66,14 +126,244 @@ declare module 'react-native-wifi-reborn' {
         error: (err: string) => void
     ): void;
 
+    /**
+     * Returns a list of nearby WiFI networks as an array of `WiFiObject`.
+     * Prefer it over `loadWifiList`, as the list no longer has to be stringified and parsed.
+     *
+     * @example
+     * const wifiArray = await WifiManager.loadWifiListNative();
+     */
+    export function loadWifiListNative(): Promise<WiFiObject[]>;
+
+    export type WiFiSecurity = 'open' | 'wep' | 'wpa' | 'wpa2' | 'wpa3' | 'owe' | 'eap';
+
+    export type ScanQuery = Partial<{
+        ssidPrefix: string;
+        // Regular expression the SSID has to contain a match of.
+        ssidPattern: string;
+        band: '2.4GHz' | '5GHz' | '6GHz';
+        // Minimum level in dBm.
+        minLevel: number;
+        // Accepted security types, a network announcing several of them matching any.
+        security: WiFiSecurity[];
+        // Keep only the strongest access point of each SSID.
+        dedup: boolean;
+        // Maximum number of results, the strongest ones.
+        limit: number;
+    }>;
+
+    /**
+     * Like `loadWifiListNative`, but resolves only with the results matching the query, strongest first.
+     */
+    export function queryWifiList(query: ScanQuery): Promise<WiFiObject[]>;
+
     /**
      * Similar to `loadWifiList` but it forcefully starts the WiFi scanning on android and in the callback fetches the list.
+     * Concurrent calls share the same scan, but the results of an earlier scan are never returned as new ones.
+     * When the scan quota is used up the scan is deferred, and the last known results are returned after 15 seconds.
      */
     export function reScanAndLoadWifiList(
         callback: (wifiList: string) => void,
         error: (err: string) => void
     ): void;
 
+    export type ReScanOptions = Partial<{
+        // Maximum age in milliseconds of cached results to return without scanning, 10000 by default.
+        maxAge: number;
+        // Milliseconds to wait for the scan before returning the last known results, 15000 by default.
+        timeout: number;
+        // Only return the matching results, like `queryWifiList`.
+        query: ScanQuery;
+    }>;
+
+    export type ScanResults = {
+        results: WiFiObject[];
+        // `false` when the results were cached or the scan could not complete.
+        fresh: boolean;
+        // Age of the results in milliseconds.
+        age: number;
+    };
+
+    /**
+     * Like `reScanAndLoadWifiList`, but resolves with the results as an array, telling whether they are fresh and their age.
+     */
+    export function reScanAndLoadWifiListNative(options: ReScanOptions): Promise<ScanResults>;
+
+    export type ScanStats = {
+        // Requests served from the cache.
+        hits: number;
+        // Requests that needed a scan.
+        misses: number;
+        // Requests that joined an in-flight or deferred scan.
+        coalesced: number;
+        // Scans deferred because of the scan quota, or refused by the system.
+        throttled: number;
+        // Requests that got the last known results because the scan did not complete in time.
+        timeouts: number;
+    };
+
+    /**
+     * Returns the counters of the scans requested with `reScanAndLoadWifiList`.
+     */
+    export function getScanStats(): Promise<ScanStats>;
+
+    export type ScanStreamOptions = Partial<{
+        // Minimum milliseconds between two requested scans, 30000 by default. Scans are deferred while the Android scan throttling quota is used up.
+        interval: number;
+        // The `WiFiObject` fields to send, by default all but the parsed capabilities and `channelWidth`.
+        fields: (keyof WiFiObject)[];
+        // Send only the changes since the previous event, as `WifiScanDelta` events.
+        diff: boolean;
+        // With `diff`, the level change in dBm a network has to exceed to be sent as changed, 0 by default.
+        rssiHysteresis: number;
+        // Only send the matching results, like `queryWifiList`.
+        query: ScanQuery;
+    }>;
+
+    export type WiFiScanDelta = {
+        added: WiFiObject[];
+        // BSSIDs of the networks that are no longer in range.
+        removed: string[];
+        changed: WiFiObject[];
+    };
+
+    /**
+     * Starts sending the nearby WiFi networks as `WifiScanResults` events, with an array of `WiFiObject` as payload.
+     * With the `diff` option, `WifiScanDelta` events with a `WiFiScanDelta` payload are sent instead, only when something changed.
+     * Calling it again while started updates the options.
+     *
+     * @example
+     * const subscription = DeviceEventEmitter.addListener('WifiScanResults', (wifiArray) => console.log(wifiArray));
+     * WifiManager.startScanStream({ interval: 10000, fields: ['SSID', 'level'] });
+     */
+    export function startScanStream(options: ScanStreamOptions): void;
+
+    /**
+     * Stops the `WifiScanResults` events.
+     */
+    export function stopScanStream(): void;
+
+    export type ScanRecording = {
+        name: string;
+        path: string;
+    };
+
+    export type ScanRecordingStats = ScanRecording & {
+        scans: number;
+        results: number;
+        // Scans not recorded because the writer could not keep up.
+        dropped: number;
+        bytes: number;
+    };
+
+    export type RecordedScan = {
+        // Wall clock time in milliseconds.
+        time: number;
+        results: Pick<WiFiObject, 'SSID' | 'BSSID' | 'level' | 'frequency'>[];
+    };
+
+    export type ScanRecordingPage = {
+        scans: RecordedScan[];
+        // To pass to read the next page.
+        cursor: number;
+        // `true` at the end of the log, which may still grow while it is being recorded.
+        done: boolean;
+    };
+
+    /**
+     * Starts recording every scan result received to a compact binary log in the app files.
+     *
+     * @param options `name` of the log, by default from the current time. A log with the same name is replaced.
+     */
+    export function startScanRecording(options?: { name?: string }): Promise<ScanRecording>;
+
+    /**
+     * Stops the scan recording. Resolves with `null` if nothing was recorded.
+     */
+    export function stopScanRecording(): Promise<ScanRecordingStats | null>;
+
+    /**
+     * Reads a page of a scan recording.
+     *
+     * @param options `cursor` of the page, 0 by default for the first one, and `limit`, the maximum number of scans, 20 by default.
+     */
+    export function readScanRecording(
+        name: string,
+        options?: { cursor?: number; limit?: number }
+    ): Promise<ScanRecordingPage>;
+
+    export type PhaseHistogram = {
+        count: number;
+        p50: number;
+        p95: number;
+        p99: number;
+    };
+
+    export type ConnectionMetrics = {
+        // Number of successful connections recorded.
+        connections: number;
+        // Histograms of the last 100 timings of every connection phase, in milliseconds.
+        phases: { [phase: string]: PhaseHistogram };
+        // Android 10+ connections served, or not, by reusing the network of the last connection to the same SSID.
+        reconnectCache: { hits: number; misses: number };
+    };
+
+    /**
+     * Returns the histograms of the successful connections timings.
+     * Every successful connection also sends a `WifiConnectionTimings` event, with the `SSID` and its `timings`.
+     */
+    export function getConnectionMetrics(): Promise<ConnectionMetrics>;
+
+    export type ConnectionSnapshot = {
+        SSID: string;
+        BSSID: string;
+        // RSSI in dBm.
+        signalStrength: number;
+        frequency: number;
+        // Link speed in Mbps.
+        linkSpeed: number;
+        networkId: number;
+        IP: string;
+        gateway: string;
+    };
+
+    /**
+     * Returns the current connection at once. Like the connection getters, it is cached and read again
+     * when the WiFi network changes, or after one second at the latest.
+     */
+    export function getConnectionSnapshot(): Promise<ConnectionSnapshot>;
+
+    export type SignalStrengthOptions = Partial<{
+        // Minimum milliseconds between two events, 1000 by default.
+        debounce: number;
+        // RSSI change in dBm needed to send an event, 1 by default.
+        rssiThreshold: number;
+        // Downstream bandwidth change in Kbps needed to send an event, 1000 by default.
+        bandwidthThreshold: number;
+    }>;
+
+    export type SignalStrengthEvent = {
+        // RSSI in dBm.
+        signalStrength: number | null;
+        linkDownstreamBandwidthKbps: number | null;
+        linkUpstreamBandwidthKbps: number | null;
+    };
+
+    /**
+     * Starts sending the signal strength of the current connection as `WifiSignalStrength` events,
+     * with a `SignalStrengthEvent` payload. Calling it again while started updates the options.
+     *
+     * @example
+     * const subscription = DeviceEventEmitter.addListener('WifiSignalStrength', ({ signalStrength }) => console.log(signalStrength));
+     * WifiManager.startSignalStrengthUpdates({ rssiThreshold: 3 });
+     */
+    export function startSignalStrengthUpdates(options: SignalStrengthOptions): void;
+
+    /**
+     * Stops the `WifiSignalStrength` events.
+     */
+    export function stopSignalStrengthUpdates(): void;
+
     export function isEnabled(callback: (enabled: boolean) => void): void;
 
     export function setEnabled(enabled: boolean): void;
@@ -84,8 +374,67 @@ declare module 'react-native-wifi-reborn' {
      */
     export function connectionStatus(callback: (isConnected: boolean) => void): void;
 
+    export type ConnectivityState = {
+        connected: boolean;
+        SSID: string | null;
+        // The network has a working internet access.
+        validated: boolean;
+        metered: boolean;
+    };
+
+    /**
+     * Returns the WiFi connectivity state. Once called, every change of this state is sent as a
+     * `WifiConnectivityChanged` event with a `ConnectivityState` payload.
+     */
+    export function getConnectivityState(): Promise<ConnectivityState>;
+
     export function disconnect(): void;
 
+    /**
+     * Android 10+. Releases the network of the connection that resolved with this handle.
+     * A network reused by several connections is only released with the last of their handles.
+     * A connection still in progress is rejected with `cancelled`.
+     *
+     * @returns false if there is no connection with this handle.
+     */
+    export function disconnectNetwork(handle: number): Promise<boolean>;
+
+    export type FetchOverNetworkOptions = {
+        url: string;
+        // `GET` by default.
+        method?: string;
+        headers?: { [name: string]: string };
+        // Not allowed for `GET` and `HEAD`.
+        body?: string;
+        // Milliseconds, 10000 by default.
+        timeout?: number;
+        // `text` by default, `base64` for a binary body.
+        responseType?: 'text' | 'base64';
+        // Bytes, 1 MiB by default. A larger response is rejected with `responseTooLarge`.
+        maxResponseSize?: number;
+    };
+
+    export type FetchOverNetworkResponse = {
+        status: number;
+        // Lower-cased names.
+        headers: { [name: string]: string };
+        body: string;
+    };
+
+    /**
+     * Android 10+. Sends an HTTP request through the network of the connection that resolved with this handle,
+     * whether the app is bound to it or not.
+     */
+    export function fetchOverNetwork(
+        handle: number,
+        options: FetchOverNetworkOptions
+    ): Promise<FetchOverNetworkResponse>;
+
+    /**
+     * Android 10+. Rejects the connection in progress and the queued ones with `cancelled`.
+     */
+    export function cancelConnection(): void;
+
     /**
      * Remove the network with SSID from configirued networks. 
      * When their is a wrong authed network in configured network, the connectToProtectedSSID will fail.
@@ -95,6 +444,13 @@ declare module 'react-native-wifi-reborn' {
      */
     export function isRemoveWifiNetwork(SSID: string): Promise<boolean>;
 
+    /**
+     * Remove the networks with these SSIDs from configured networks, saving the configuration only once.
+     * @param SSIDs
+     * @returns for every SSID, true: the network has been deleted or was not configured. false: the network is created by others, you can not delete it.
+     */
+    export function removeWifiNetworks(SSIDs: string[]): Promise<{ [SSID: string]: boolean }>;
+
     export enum FORCE_WIFI_USAGE_ERRORS {
         couldNotGetConnectivityManager = 'couldNotGetConnectivityManager',
     }
@@ -112,6 +468,46 @@ declare module 'react-native-wifi-reborn' {
      */
     export function forceWifiUsage(useWifi: boolean): Promise<void>;
 
+    export type NetworkSuggestion = {
+        ssid: string;
+        // `null` for open networks.
+        password?: string | null;
+        // `open` without password and `wpa2` with one by default. `owe` is enhanced open.
+        security?: 'open' | 'owe' | 'wpa2' | 'wpa3';
+        bssid?: string;
+        hidden?: boolean;
+        metered?: boolean;
+        priority?: number;
+        appInteractionRequired?: boolean;
+    };
+
+    export type NetworkSuggestionsResult = {
+        status:
+            | 'success'
+            | 'internalError'
+            | 'appDisallowed'
+            | 'duplicate'
+            | 'exceedsMaxPerApp'
+            | 'removeInvalid'
+            | 'error';
+        // The WifiManager.STATUS_NETWORK_SUGGESTIONS_* value.
+        code: number;
+    };
+
+    /**
+     * Android 10+. Suggests networks for the platform to join on its own, without user prompt, in a single call.
+     */
+    export function addNetworkSuggestions(
+        suggestions: NetworkSuggestion[]
+    ): Promise<NetworkSuggestionsResult>;
+
+    /**
+     * Android 10+. Removes suggested networks, passed with the same options they were added with.
+     */
+    export function removeNetworkSuggestions(
+        suggestions: NetworkSuggestion[]
+    ): Promise<NetworkSuggestionsResult>;
+
     /**
      * This method will check if the Location service is on
      *